@@ -0,0 +1,146 @@
+package utilities;
+
+import java.util.Arrays;
+
+/**
+ * The `ArrayBSTree` class is a self-balancing (AVL) binary search tree that keeps its nodes in
+ * parallel arrays instead of {@link BSTreeNode} objects: node {@code i} is made of
+ * {@code elements[i]}, {@code left[i]}, {@code right[i]} and {@code height[i]}, and children are array
+ * indices. A tree of any size is four arrays for the garbage collector to trace rather than one object
+ * per element, and there is no object header per node.
+ * <p>
+ * Slots freed by {@link #removeMin()} and {@link #removeMax()} are reused by later insertions.
+ * {@link #clear()} resets the indices in constant time and keeps the capacity; the elements it drops
+ * stay referenced until their slots are reused or {@link #trimToSize()} is called.
+ * Since there are no node objects, {@link #getRoot()} is not supported and {@link #search} returns a
+ * new, detached node holding the stored element.
+ *
+ * @param <E> The type of elements stored in the tree.
+ */
+public class ArrayBSTree<E extends Comparable<? super E>> extends IndexedBSTree<E> {
+	private static final long serialVersionUID = 8815227603394070962L;
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private Object[] elements;
+	private int[] left;
+	private int[] right;
+	// Edges on the longest path down to a leaf; a leaf is 0
+	private int[] height;
+
+	/**
+	 * Constructs an empty tree with a default capacity.
+	 */
+	public ArrayBSTree() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty tree able to hold the given number of elements before growing.
+	 *
+	 * @param initialCapacity The number of elements the tree can hold before it grows.
+	 * @throws IllegalArgumentException if the capacity is negative.
+	 */
+	public ArrayBSTree(int initialCapacity) throws IllegalArgumentException {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+		int capacity = Math.max(initialCapacity, 1);
+		elements = new Object[capacity];
+		left = new int[capacity];
+		right = new int[capacity];
+		height = new int[capacity];
+	}
+
+	/**
+	 * Not supported: the tree has no node objects.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public BSTreeNode<E> getRoot() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("An array-backed tree has no nodes");
+	}
+
+	/**
+	 * Returns the number of slots the arrays can hold before they grow.
+	 */
+	int capacity() {
+		return elements.length;
+	}
+
+	/**
+	 * Shrinks the arrays to the slots in use and drops the references held by unused slots. Freed slots
+	 * in the middle of the arrays stay allocated but no longer reference their old elements.
+	 */
+	public void trimToSize() {
+		int capacity = Math.max(used, 1);
+		elements = Arrays.copyOf(elements, capacity);
+		left = Arrays.copyOf(left, capacity);
+		right = Arrays.copyOf(right, capacity);
+		height = Arrays.copyOf(height, capacity);
+		Arrays.fill(elements, used, capacity, null);
+		for (int slot = free; slot != NIL; slot = left[slot])
+			elements[slot] = null;
+	}
+
+	@Override
+	int left(int node) {
+		return left[node];
+	}
+
+	@Override
+	int right(int node) {
+		return right[node];
+	}
+
+	@Override
+	int height(int node) {
+		return height[node];
+	}
+
+	@Override
+	void setLeft(int node, int child) {
+		left[node] = child;
+	}
+
+	@Override
+	void setRight(int node, int child) {
+		right[node] = child;
+	}
+
+	@Override
+	void setHeight(int node, int height) {
+		this.height[node] = height;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	E elementAt(int node) {
+		return (E) elements[node];
+	}
+
+	@Override
+	int compare(E entry, int node) {
+		return entry.compareTo(elementAt(node));
+	}
+
+	@Override
+	void reserve(int node) {
+		if (node == elements.length) {
+			int capacity = node * 2;
+			elements = Arrays.copyOf(elements, capacity);
+			left = Arrays.copyOf(left, capacity);
+			right = Arrays.copyOf(right, capacity);
+			height = Arrays.copyOf(height, capacity);
+		}
+	}
+
+	@Override
+	void store(int node, E element) {
+		elements[node] = element;
+	}
+
+	@Override
+	void release(int node) {
+		elements[node] = null;
+	}
+}
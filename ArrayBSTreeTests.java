@@ -0,0 +1,127 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ArrayBSTreeTests {
+
+	private ArrayBSTree<Integer> tree;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		tree = new ArrayBSTree<>(4);
+	}
+
+	@Test
+	void testMatchesTreeSet()
+	{
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(17);
+		for (int i = 0; i < 30_000; i++) {
+			int key = random.nextInt(3000);
+			int op = random.nextInt(10);
+			if (op < 5)
+				assertEquals(expected.add(key), tree.add(key));
+			else if (op < 8)
+				assertEquals(expected.contains(key), tree.contains(key));
+			else if (op == 8)
+				assertEquals(expected.pollFirst(), elementOf(tree.removeMin()));
+			else
+				assertEquals(expected.pollLast(), elementOf(tree.removeMax()));
+			assertEquals(expected.size(), tree.size());
+		}
+		assertEquals(expected.toString(), elements(tree.inorderIterator()));
+		assertTrue(tree.getHeight() <= 1.45 * Math.log(expected.size() + 2) / Math.log(2), "The tree should stay balanced");
+	}
+
+	@Test
+	void testFreedSlotsAreReused()
+	{
+		for (int i = 0; i < 100; i++)
+			tree.add(i);
+		int capacity = tree.capacity();
+		assertTrue(capacity >= 100);
+		for (int i = 0; i < 40; i++) {
+			tree.removeMin();
+			tree.removeMax();
+		}
+		// Refilling the tree to its old size should take the freed slots rather than grow the arrays
+		for (int i = 1000; i < 1080; i++)
+			tree.add(i);
+		assertEquals(100, tree.size());
+		assertEquals(capacity, tree.capacity(), "Insertions after removals should reuse freed slots");
+		assertEquals(40, tree.removeMin().getElement());
+		assertEquals(1079, tree.removeMax().getElement());
+	}
+
+	@Test
+	void testClearKeepsCapacity()
+	{
+		for (int i = 0; i < 100; i++)
+			tree.add(i);
+		int capacity = tree.capacity();
+		tree.clear();
+		assertTrue(tree.isEmpty());
+		assertEquals(0, tree.getHeight());
+		assertFalse(tree.contains(50));
+		assertFalse(tree.inorderIterator().hasNext());
+		assertNull(tree.removeMin());
+		for (int i = 0; i < 100; i++)
+			tree.add(-i);
+		assertEquals(capacity, tree.capacity(), "A cleared tree should refill without growing");
+		assertEquals(-99, tree.removeMin().getElement());
+		assertEquals(0, tree.removeMax().getElement());
+	}
+
+	@Test
+	void testTrimToSize()
+	{
+		for (int i = 0; i < 100; i++)
+			tree.add(i);
+		tree.clear();
+		for (int i = 0; i < 10; i++)
+			tree.add(i);
+		tree.removeMin();
+		tree.trimToSize();
+		assertEquals(10, tree.capacity(), "Trimming should keep only the slots handed out since the clear");
+		assertEquals(9, tree.size());
+		assertEquals("[1, 2, 3, 4, 5, 6, 7, 8, 9]", elements(tree.inorderIterator()));
+		assertTrue(tree.add(10), "The freed slot should still be reusable after trimming");
+		assertEquals(10, tree.capacity());
+		assertTrue(tree.add(11), "A trimmed tree should grow again when full");
+		assertEquals("[1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11]", elements(tree.inorderIterator()));
+
+		ArrayBSTree<Integer> empty = new ArrayBSTree<>();
+		empty.trimToSize();
+		assertTrue(empty.add(1), "An empty trimmed tree should still accept elements");
+	}
+
+	@Test
+	void testTraversalOrders()
+	{
+		for (int key : new int[] { 4, 2, 6, 1, 3, 5, 7 })
+			tree.add(key);
+		assertEquals("[1, 2, 3, 4, 5, 6, 7]", elements(tree.inorderIterator()));
+		assertEquals("[4, 2, 1, 3, 6, 5, 7]", elements(tree.preorderIterator()));
+		assertEquals("[1, 3, 2, 5, 7, 6, 4]", elements(tree.postorderIterator()));
+		assertThrows(UnsupportedOperationException.class, () -> tree.getRoot());
+	}
+
+	private static Integer elementOf(BSTreeNode<Integer> node) {
+		return (node == null) ? null : node.getElement();
+	}
+
+	private static String elements(Iterator<Integer> iterator) {
+		List<Integer> elements = new ArrayList<>();
+		while (iterator.hasNext())
+			elements.add(iterator.next());
+		return elements.toString();
+	}
+}
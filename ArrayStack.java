@@ -0,0 +1,189 @@
+package utilities;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.NoSuchElementException;
+
+/**
+ * The `ArrayStack` class represents a generic stack data structure backed by a growable array. Unlike
+ * {@link MyStack} it does not allocate a node per push, so it suits short-lived, traversal-heavy use
+ * such as tree iterators. A cleared stack keeps its capacity and can be reused.
+ *
+ * @param <E> The type of elements stored in the stack.
+ */
+public class ArrayStack<E> implements StackADT<E> {
+	private static final long serialVersionUID = 4370142385126412507L;
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private Object[] elements;
+	private int size;
+
+	/**
+	 * Constructs an empty stack with a default capacity.
+	 */
+	public ArrayStack() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty stack able to hold the given number of elements before growing.
+	 *
+	 * @param initialCapacity The number of elements the stack can hold before it grows.
+	 * @throws IllegalArgumentException if the capacity is negative.
+	 */
+	public ArrayStack(int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+		elements = new Object[Math.max(initialCapacity, 1)];
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of elements in the stack.
+	 *
+	 * @return The number of elements in the stack.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all of the elements from the stack. The capacity is kept for reuse.
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Pushes an element onto the top of this stack, growing the backing array if it is full.
+	 *
+	 * @param toAdd The element to add to the stack.
+	 * @return {@code true} if the element was successfully added.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean push(E toAdd) throws NullPointerException {
+		if (toAdd == null) {
+			throw new NullPointerException("Cannot add a null element to the stack.");
+		}
+		if (size == elements.length) {
+			elements = Arrays.copyOf(elements, size * 2);
+		}
+		elements[size++] = toAdd;
+		return true;
+	}
+
+	/**
+	 * Searches for the specified element in the stack.
+	 *
+	 * @param toFind The element to search for.
+	 * @return The 1-based position of the element from the top of the stack, or -1 if the element is not found.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public int search(E toFind) throws NullPointerException {
+		if (toFind == null) {
+			throw new NullPointerException("Cannot search for a null element in the stack.");
+		}
+		for (int i = size - 1; i >= 0; i--) {
+			if (elements[i].equals(toFind)) {
+				return size - i;
+			}
+		}
+		return -1; // Element not found
+	}
+
+	/**
+	 * Looks at the object at the top of this stack without removing it from the stack.
+	 *
+	 * @return The object at the top of the stack.
+	 * @throws EmptyStackException if the stack is empty.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public E peek() throws EmptyStackException {
+		if (isEmpty()) {
+			throw new EmptyStackException();
+		}
+		return (E) elements[size - 1];
+	}
+
+	/**
+	 * Removes the object at the top of this stack and returns that object.
+	 *
+	 * @return The object removed from the top of the stack.
+	 * @throws EmptyStackException if the stack is empty.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public E pop() throws EmptyStackException {
+		if (isEmpty()) {
+			throw new EmptyStackException();
+		}
+		E element = (E) elements[--size];
+		elements[size] = null;
+		return element;
+	}
+
+	/**
+	 * Tests if this stack is empty.
+	 *
+	 * @return {@code true} if and only if this stack contains no items; {@code false} otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns an iterator over the elements in this stack, from the top down.
+	 *
+	 * @return An iterator over the elements in this stack.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new ArrayStackIterator();
+	}
+
+	/**
+	 * The `ArrayStackIterator` class represents an iterator over a stack, from the top down.
+	 */
+	private class ArrayStackIterator implements Iterator<E> {
+		private int index;
+
+		/**
+		 * Constructs a new iterator.
+		 */
+		public ArrayStackIterator() {
+			index = size - 1;
+		}
+
+		/**
+		 * Returns {@code true} if the iteration has more elements.
+		 *
+		 * @return {@code true} if the iteration has more elements, {@code false} otherwise.
+		 */
+		@Override
+		public boolean hasNext() {
+			return index >= 0;
+		}
+
+		/**
+		 * Returns the next element in the iteration.
+		 *
+		 * @return The next element in the iteration.
+		 * @throws NoSuchElementException if the iteration has no more elements.
+		 */
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() throws NoSuchElementException {
+			if (!hasNext()) {
+				throw new NoSuchElementException("No more elements in the iterator.");
+			}
+			return (E) elements[index--];
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.EmptyStackException;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ArrayStackTests {
+
+	private ArrayStack<Integer> stack;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		stack = new ArrayStack<>(2);
+	}
+
+	@Test
+	void testPushGrowsPastInitialCapacity()
+	{
+		for (int i = 0; i < 100; i++)
+			assertTrue(stack.push(i));
+		assertEquals(100, stack.size());
+		assertEquals(99, stack.peek());
+		for (int i = 99; i >= 0; i--)
+			assertEquals(i, stack.pop(), "Elements should come off in reverse push order");
+		assertTrue(stack.isEmpty());
+	}
+
+	@Test
+	void testZeroCapacityStackGrows()
+	{
+		ArrayStack<Integer> empty = new ArrayStack<>(0);
+		empty.push(1);
+		empty.push(2);
+		assertEquals(2, empty.size());
+		assertThrows(IllegalArgumentException.class, () -> new ArrayStack<Integer>(-1));
+	}
+
+	@Test
+	void testPopAndPeekOnEmptyStack()
+	{
+		assertThrows(EmptyStackException.class, () -> stack.pop(), "Popping an empty stack should throw");
+		assertThrows(EmptyStackException.class, () -> stack.peek(), "Peeking at an empty stack should throw");
+		stack.push(1);
+		stack.pop();
+		assertThrows(EmptyStackException.class, () -> stack.pop(), "A drained stack should be empty again");
+	}
+
+	@Test
+	void testPushNull()
+	{
+		assertThrows(NullPointerException.class, () -> stack.push(null));
+		assertThrows(NullPointerException.class, () -> stack.search(null));
+	}
+
+	@Test
+	void testIteratorRunsFromTopDown()
+	{
+		for (int i = 1; i <= 5; i++)
+			stack.push(i);
+		StringBuilder result = new StringBuilder();
+		Iterator<Integer> iterator = stack.iterator();
+		while (iterator.hasNext())
+			result.append(iterator.next()).append(" ");
+		assertEquals("5 4 3 2 1 ", result.toString(), "Iteration should start at the top of the stack");
+		assertThrows(NoSuchElementException.class, () -> iterator.next());
+		assertEquals(5, stack.size(), "Iterating should not pop anything");
+	}
+
+	@Test
+	void testSearchCountsFromTop()
+	{
+		for (int i = 1; i <= 5; i++)
+			stack.push(i);
+		assertEquals(1, stack.search(5));
+		assertEquals(5, stack.search(1));
+		assertEquals(-1, stack.search(6));
+	}
+
+	@Test
+	void testClearKeepsStackUsable()
+	{
+		for (int i = 0; i < 20; i++)
+			stack.push(i);
+		stack.clear();
+		assertTrue(stack.isEmpty());
+		assertFalse(stack.iterator().hasNext());
+		stack.push(42);
+		assertEquals(42, stack.peek());
+		assertEquals(1, stack.size());
+	}
+}
@@ -0,0 +1,788 @@
+package utilities;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `BSTreeBenchmark` class is a small stand-alone timing harness for the tree implementations in
+ * this package. Each scenario builds its inputs, warms up, and prints the best of several timed rounds.
+ * Run it with the scenario names to execute, or with no arguments to run all of them.
+ */
+public class BSTreeBenchmark {
+	private static final int ROUNDS = 5;
+
+	/**
+	 * Runs the requested benchmark scenarios.
+	 *
+	 * @param args The scenario names to run; all scenarios run when empty.
+	 */
+	public static void main(String[] args) {
+		boolean all = args.length == 0;
+		if (all || contains(args, "recursion"))
+			recursionScenario();
+		if (all || contains(args, "allocation"))
+			allocationScenario();
+		if (all || contains(args, "stream"))
+			streamScenario();
+		if (all || contains(args, "concurrency"))
+			concurrencyScenario();
+		if (all || contains(args, "frozen"))
+			frozenScenario();
+		if (all || contains(args, "btree"))
+			btreeScenario();
+		if (all || contains(args, "primitive"))
+			primitiveScenario();
+		if (all || contains(args, "layout"))
+			layoutScenario();
+		if (all || contains(args, "mapped"))
+			mappedScenario();
+		if (all || contains(args, "serialization"))
+			serializationScenario();
+		if (all || contains(args, "setops"))
+			setOperationScenario();
+		if (all || contains(args, "eviction"))
+			evictionScenario();
+		if (all || contains(args, "removal"))
+			removalScenario();
+		if (all || contains(args, "zipf"))
+			zipfScenario();
+		if (all || contains(args, "treap"))
+			treapScenario();
+	}
+
+	/**
+	 * Compares the iterative search and add paths of {@link myBSTree} against their recursive
+	 * counterparts on a random (balanced in shape) tree and on a degenerate tree built from sorted keys.
+	 */
+	static void recursionScenario() {
+		System.out.println("== iterative vs recursive search/add ==");
+		int balancedSize = 200_000;
+		int degenerateSize = 5_000;
+		Integer[] shuffled = shuffledKeys(balancedSize, 42);
+		Integer[] sorted = sortedKeys(degenerateSize);
+
+		compareShape("random", shuffled);
+		compareShape("degenerate", sorted);
+
+		// A deeper degenerate tree: the loop-based path copes, the recursive one runs out of stack
+		Integer[] deep = sortedKeys(50_000);
+		myBSTree<Integer> tree = new myBSTree<>();
+		for (Integer key : deep)
+			tree.add(key);
+		report("search iterative, degenerate n=" + deep.length, deep.length, () -> searchAll(tree, deep, false));
+		try {
+			report("search recursive, degenerate n=" + deep.length, deep.length, () -> searchAll(tree, deep, true));
+		} catch (StackOverflowError e) {
+			System.out.println("search recursive, degenerate n=" + deep.length + ": StackOverflowError");
+		}
+	}
+
+	private static void compareShape(String shape, Integer[] keys) {
+		report("add iterative, " + shape + " n=" + keys.length, keys.length, () -> {
+			myBSTree<Integer> tree = new myBSTree<>();
+			for (Integer key : keys)
+				tree.add(key);
+			return tree.size();
+		});
+		report("add recursive, " + shape + " n=" + keys.length, keys.length, () -> {
+			myBSTree<Integer> tree = new myBSTree<>();
+			for (Integer key : keys)
+				tree.addRecursively(key);
+			return tree.size();
+		});
+		myBSTree<Integer> tree = new myBSTree<>();
+		for (Integer key : keys)
+			tree.add(key);
+		report("search iterative, " + shape + " n=" + keys.length, keys.length, () -> searchAll(tree, keys, false));
+		report("search recursive, " + shape + " n=" + keys.length, keys.length, () -> searchAll(tree, keys, true));
+	}
+
+	private static long searchAll(myBSTree<Integer> tree, Integer[] keys, boolean recursive) {
+		long found = 0;
+		for (Integer key : keys) {
+			BSTreeNode<Integer> node = recursive ? tree.searchRecursively(key) : tree.search(key);
+			if (node != null)
+				found++;
+		}
+		return found;
+	}
+
+	/**
+	 * Measures the bytes allocated by one full in-order traversal. The baseline walks the tree with a
+	 * {@link MyStack}, as the tree iterators used to, and allocates a stack node per visited element;
+	 * the tree iterators now use an {@link ArrayStack} sized from the tree height.
+	 */
+	static void allocationScenario() {
+		System.out.println("== bytes allocated per in-order traversal ==");
+		for (int n : new int[] { 10_000, 1_000_000 }) {
+			myBSTree<Integer> tree = myBSTree.fromSorted(shuffledKeys(n, 7));
+			allocation("MyStack walk, n=" + n, () -> linkedStackWalk(tree.getRoot()));
+			allocation("inorderIterator, n=" + n, () -> drain(tree.inorderIterator()));
+			allocation("preorderIterator, n=" + n, () -> drain(tree.preorderIterator()));
+			allocation("postorderIterator, n=" + n, () -> drain(tree.postorderIterator()));
+		}
+	}
+
+	private static long linkedStackWalk(BSTreeNode<Integer> root) {
+		long sum = 0;
+		MyStack<BSTreeNode<Integer>> stack = new MyStack<>();
+		BSTreeNode<Integer> node = root;
+		while (node != null || !stack.isEmpty()) {
+			while (node != null) {
+				stack.push(node);
+				node = node.getLeft();
+			}
+			node = stack.pop();
+			sum += node.getElement();
+			node = node.getRight();
+		}
+		return sum;
+	}
+
+	private static long drain(Iterator<Integer> iterator) {
+		long sum = 0;
+		while (iterator.hasNext())
+			sum += iterator.next();
+		return sum;
+	}
+
+	/**
+	 * Prints the bytes the current thread allocates while running a task, averaged over several runs
+	 * after a warm-up.
+	 */
+	static void allocation(String label, Task task) {
+		for (int i = 0; i < 3; i++)
+			sink += task.run();
+		long bytes = allocatedBytes(() -> {
+			long result = 0;
+			for (int round = 0; round < ROUNDS; round++)
+				result += task.run();
+			return result;
+		}) / ROUNDS;
+		System.out.printf("%-50s %12d bytes/traversal%n", label, bytes);
+	}
+
+	/**
+	 * Returns the bytes the current thread allocates while running a task once.
+	 */
+	static long allocatedBytes(Task task) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(thread);
+		sink += task.run();
+		return threads.getThreadAllocatedBytes(thread) - before;
+	}
+
+	/**
+	 * Compares a sequential and a parallel reduction over the tree spliterator.
+	 */
+	static void streamScenario() {
+		System.out.println("== sequential vs parallel stream sum (" + Runtime.getRuntime().availableProcessors() + " cores) ==");
+		int n = 4_000_000;
+		myBSTree<Integer> tree = myBSTree.fromSorted(sortedKeys(n));
+		report("stream sum, n=" + n, n, () -> tree.stream().mapToLong(Integer::longValue).sum());
+		report("parallelStream sum, n=" + n, n, () -> tree.parallelStream().mapToLong(Integer::longValue).sum());
+	}
+
+	/**
+	 * Measures mixed read/write throughput of a {@link myBSTree} behind one global lock against a
+	 * {@link ConcurrentBSTree}, for several thread counts and read ratios.
+	 */
+	static void concurrencyScenario() {
+		System.out.println("== concurrent throughput (" + Runtime.getRuntime().availableProcessors() + " cores) ==");
+		int keyRange = 1 << 20;
+		for (int readPercent : new int[] { 50, 90, 99 }) {
+			for (int threads : new int[] { 1, 2, 4, 8, 16, 32 }) {
+				double locked = throughput(preload(new myBSTree<>(true), keyRange), true, threads, readPercent, keyRange);
+				double concurrent = throughput(preload(new ConcurrentBSTree<>(), keyRange), false, threads, readPercent, keyRange);
+				System.out.printf("reads %2d%%, %2d threads: global lock %8.2f Mops/s, ConcurrentBSTree %8.2f Mops/s%n",
+						readPercent, threads, locked, concurrent);
+			}
+		}
+	}
+
+	private static BSTreeADT<Integer> preload(BSTreeADT<Integer> tree, int keyRange) {
+		Random random = new Random(1);
+		for (int i = 0; i < keyRange / 2; i++)
+			tree.add(random.nextInt(keyRange));
+		return tree;
+	}
+
+	/**
+	 * Runs the mixed workload for a fixed time and returns millions of operations per second. Writes
+	 * are split evenly between add and removeMin so the tree size stays roughly stable.
+	 */
+	private static double throughput(BSTreeADT<Integer> tree, boolean globalLock, int threads, int readPercent, int keyRange) {
+		long millis = 500;
+		LongAdder operations = new LongAdder();
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] workers = new Thread[threads];
+		long[] deadline = new long[1];
+		for (int t = 0; t < threads; t++) {
+			workers[t] = new Thread(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				long done = 0;
+				while ((done & 255) != 0 || System.nanoTime() < deadline[0]) {
+					Integer key = random.nextInt(keyRange);
+					int choice = random.nextInt(100);
+					if (globalLock) {
+						synchronized (tree) {
+							operate(tree, key, choice, readPercent);
+						}
+					} else {
+						operate(tree, key, choice, readPercent);
+					}
+					done++;
+				}
+				operations.add(done);
+			});
+			workers[t].start();
+		}
+		deadline[0] = System.nanoTime() + millis * 1_000_000L;
+		start.countDown();
+		for (Thread worker : workers) {
+			try {
+				worker.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return operations.sum() / (millis * 1000.0);
+	}
+
+	private static void operate(BSTreeADT<Integer> tree, Integer key, int choice, int readPercent) {
+		if (choice < readPercent)
+			tree.contains(key);
+		else if ((choice & 1) == 0)
+			tree.add(key);
+		else
+			tree.removeMin();
+	}
+
+	/**
+	 * Compares lookups in a pointer-based {@link myBSTree}, iteratively and recursively, against the
+	 * array-backed {@link FrozenBSTree}. Half of the probed keys are absent.
+	 */
+	static void frozenScenario() {
+		System.out.println("== pointer vs Eytzinger search ==");
+		int lookups = 1_000_000;
+		for (int n : new int[] { 1_000_000, 10_000_000 }) {
+			Integer[] keys = sortedKeys(n);
+			for (int i = 0; i < n; i++)
+				keys[i] = 2 * i;
+			myBSTree<Integer> tree = myBSTree.fromSorted(keys);
+			FrozenBSTree<Integer> frozen = tree.freeze();
+			Integer[] probes = new Integer[lookups];
+			Random random = new Random(11);
+			for (int i = 0; i < lookups; i++)
+				probes[i] = random.nextInt(2 * n);
+			report("myBSTree search, n=" + n, lookups, () -> searchAll(tree, probes, false));
+			report("myBSTree searchRecursively, n=" + n, lookups, () -> searchAll(tree, probes, true));
+			report("FrozenBSTree contains, n=" + n, lookups, () -> {
+				long found = 0;
+				for (Integer probe : probes)
+					if (frozen.contains(probe))
+						found++;
+				return found;
+			});
+		}
+	}
+
+	/**
+	 * Compares a balanced {@link myBSTree} with {@link BTree} at a few fanouts: the bytes of tree
+	 * structure allocated per key while inserting shuffled keys (the boxed keys themselves are created
+	 * beforehand and not counted), and the time per lookup.
+	 */
+	static void btreeScenario() {
+		System.out.println("== binary vs B-tree memory and search ==");
+		int n = 1_000_000;
+		Integer[] keys = shuffledKeys(n, 5);
+		Integer[] probes = shuffledKeys(n, 6);
+		myBSTree<Integer> avl = myBSTree.balanced();
+		long bytes = allocatedBytes(() -> {
+			for (Integer key : keys)
+				avl.add(key);
+			return avl.size();
+		});
+		System.out.printf("%-50s %10.1f bytes/key%n", "myBSTree (AVL) add, n=" + n, (double) bytes / n);
+		report("myBSTree (AVL) search, n=" + n, n, () -> searchAll(avl, probes, false));
+		for (int fanout : new int[] { 16, 32, 64 }) {
+			BTree<Integer> btree = new BTree<>(fanout);
+			bytes = allocatedBytes(() -> {
+				for (Integer key : keys)
+					btree.add(key);
+				return btree.size();
+			});
+			System.out.printf("%-50s %10.1f bytes/key%n", "BTree fanout " + fanout + " add, n=" + n, (double) bytes / n);
+			report("BTree fanout " + fanout + " contains, n=" + n, n, () -> {
+				long found = 0;
+				for (Integer probe : probes)
+					if (btree.contains(probe))
+						found++;
+				return found;
+			});
+		}
+	}
+
+	/**
+	 * Compares a balanced {@code myBSTree<Integer>} with {@link IntBSTree} on the same shuffled keys:
+	 * bytes allocated per insertion, including boxing, and time per insertion and lookup.
+	 */
+	static void primitiveScenario() {
+		System.out.println("== boxed vs primitive keys ==");
+		int n = 1_000_000;
+		int[] keys = new int[n];
+		Integer[] shuffled = shuffledKeys(n, 9);
+		for (int i = 0; i < n; i++)
+			keys[i] = shuffled[i];
+		System.out.printf("%-50s %10.1f bytes/key%n", "myBSTree<Integer> add, n=" + n, (double) allocatedBytes(() -> {
+			myBSTree<Integer> tree = myBSTree.balanced();
+			for (int key : keys)
+				tree.add(key);
+			return tree.size();
+		}) / n);
+		System.out.printf("%-50s %10.1f bytes/key%n", "IntBSTree add, n=" + n, (double) allocatedBytes(() -> {
+			IntBSTree tree = new IntBSTree();
+			for (int key : keys)
+				tree.add(key);
+			return tree.size();
+		}) / n);
+		myBSTree<Integer> boxed = myBSTree.balanced();
+		IntBSTree primitive = new IntBSTree();
+		report("myBSTree<Integer> add, n=" + n, n, () -> {
+			boxed.clear();
+			for (int key : keys)
+				boxed.add(key);
+			return boxed.size();
+		});
+		report("IntBSTree add, n=" + n, n, () -> {
+			primitive.clear();
+			for (int key : keys)
+				primitive.add(key);
+			return primitive.size();
+		});
+		report("myBSTree<Integer> contains, n=" + n, n, () -> {
+			long found = 0;
+			for (int key : keys)
+				if (boxed.contains(key))
+					found++;
+			return found;
+		});
+		report("IntBSTree contains, n=" + n, n, () -> {
+			long found = 0;
+			for (int key : keys)
+				if (primitive.contains(key))
+					found++;
+			return found;
+		});
+	}
+
+	/**
+	 * Compares a balanced {@link myBSTree} with {@link ArrayBSTree} holding the same keys: time per
+	 * insertion and lookup, and the time a full collection takes while the tree is live, which grows with
+	 * the number of objects the collector has to trace.
+	 */
+	static void layoutScenario() {
+		System.out.println("== node objects vs parallel arrays ==");
+		int n = 5_000_000;
+		Integer[] keys = shuffledKeys(n, 13);
+		myBSTree<Integer> nodes = myBSTree.balanced();
+		report("myBSTree add, n=" + n, n, () -> {
+			nodes.clear();
+			for (Integer key : keys)
+				nodes.add(key);
+			return nodes.size();
+		});
+		report("myBSTree search, n=" + n, n, () -> searchAll(nodes, keys, false));
+		fullCollection("full GC with myBSTree live, n=" + n, nodes);
+		nodes.clear();
+
+		ArrayBSTree<Integer> arrays = new ArrayBSTree<>(n);
+		report("ArrayBSTree add, n=" + n, n, () -> {
+			arrays.clear();
+			for (Integer key : keys)
+				arrays.add(key);
+			return arrays.size();
+		});
+		report("ArrayBSTree contains, n=" + n, n, () -> {
+			long found = 0;
+			for (Integer key : keys)
+				if (arrays.contains(key))
+					found++;
+			return found;
+		});
+		fullCollection("full GC with ArrayBSTree live, n=" + n, arrays);
+	}
+
+	private static void fullCollection(String label, BSTreeADT<Integer> live) {
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			System.gc();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		sink += live.size();
+		System.out.printf("%-50s %10.1f ms%n", label, best / 1e6);
+	}
+
+	/**
+	 * Compares getting a tree back from a file by rebuilding it from the keys against mapping it with
+	 * {@link MappedBSTree}, and the lookup time of both.
+	 */
+	static void mappedScenario() {
+		System.out.println("== rebuild vs memory-mapped reopen ==");
+		int n = 10_000_000;
+		Long[] keys = new Long[n];
+		for (int i = 0; i < n; i++)
+			keys[i] = 2L * i;
+		Path file;
+		try {
+			file = Files.createTempFile("bstree", ".bin");
+			file.toFile().deleteOnExit();
+			MappedBSTree.write(myBSTree.fromSorted(keys), FixedWidthCodec.LONG, file);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		report("rebuild myBSTree from file, n=" + n, 1, () -> myBSTree.fromSorted(open(file).inorderIterator()).size());
+		report("open MappedBSTree, n=" + n, 1, () -> open(file).size());
+		int lookups = 1_000_000;
+		Long[] probes = new Long[lookups];
+		Random random = new Random(17);
+		for (int i = 0; i < lookups; i++)
+			probes[i] = (long) random.nextInt(2 * n);
+		myBSTree<Long> rebuilt = myBSTree.fromSorted(keys);
+		MappedBSTree<Long> mapped = open(file);
+		report("myBSTree contains, n=" + n, lookups, () -> {
+			long found = 0;
+			for (Long probe : probes)
+				if (rebuilt.contains(probe))
+					found++;
+			return found;
+		});
+		report("MappedBSTree contains, n=" + n, lookups, () -> {
+			long found = 0;
+			for (Long probe : probes)
+				if (mapped.contains(probe))
+					found++;
+			return found;
+		});
+	}
+
+	private static MappedBSTree<Long> open(Path file) {
+		try {
+			return MappedBSTree.open(file, FixedWidthCodec.LONG);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Measures the size and round-trip time of serializing a {@link myBSTree}, with a
+	 * {@link TreeSet} of the same keys as a reference. Default serialization of the tree's
+	 * nodes is not an option: {@link BSTreeNode} is not serializable, and it would recurse once per
+	 * level of a degenerate tree.
+	 */
+	static void serializationScenario() {
+		System.out.println("== serialization round trip ==");
+		int n = 1_000_000;
+		Integer[] keys = shuffledKeys(n, 19);
+		myBSTree<Integer> tree = myBSTree.fromSorted(keys);
+		TreeSet<Integer> reference = new TreeSet<>(Arrays.asList(keys));
+		System.out.printf("%-50s %10.1f bytes/element%n", "myBSTree serialized, n=" + n, (double) serialize(tree).length / n);
+		System.out.printf("%-50s %10.1f bytes/element%n", "TreeSet serialized, n=" + n, (double) serialize(reference).length / n);
+		report("myBSTree write and read, n=" + n, n, () -> ((BSTreeADT<?>) deserialize(serialize(tree))).size());
+		report("TreeSet write and read, n=" + n, n, () -> ((Set<?>) deserialize(serialize(reference))).size());
+	}
+
+	private static byte[] serialize(Object object) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Object deserialize(byte[] bytes) {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return in.readObject();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Compares merging a smaller tree into a larger one element by element against the join-based
+	 * {@link myBSTree#union}, for several size ratios. Each run rebuilds both trees from sorted keys, so
+	 * the build cost is included in both figures.
+	 */
+	static void setOperationScenario() {
+		System.out.println("== add loop vs join-based union (" + Runtime.getRuntime().availableProcessors() + " cores) ==");
+		int n = 1_000_000;
+		Integer[] large = new Integer[n];
+		for (int i = 0; i < n; i++)
+			large[i] = 2 * i;
+		for (int m : new int[] { 1_000, 100_000, 1_000_000 }) {
+			Integer[] small = new Integer[m];
+			for (int i = 0; i < m; i++)
+				small[i] = (int) ((2L * n * i) / m) + 1;
+			report("add loop, n=" + n + " m=" + m, 1, () -> {
+				myBSTree<Integer> target = myBSTree.fromSorted(large);
+				Iterator<Integer> source = myBSTree.fromSorted(small).inorderIterator();
+				while (source.hasNext())
+					target.add(source.next());
+				return target.size();
+			});
+			report("union, n=" + n + " m=" + m, 1, () -> {
+				myBSTree<Integer> target = myBSTree.fromSorted(large);
+				target.union(myBSTree.fromSorted(small));
+				return target.size();
+			});
+		}
+	}
+
+	/**
+	 * Evicts every key below a watermark, as a TTL job would, by draining the minimum one element at a
+	 * time and by detaching the whole range with {@link myBSTree#headTree}.
+	 * <p>
+	 * The loop drains from the cached minimum, which is already amortized O(1) per element, so the gap
+	 * grows with the number of keys evicted rather than with the size of the tree.
+	 */
+	static void evictionScenario() {
+		System.out.println("== removeMin loop vs headTree eviction ==");
+		int n = 1_000_000;
+		Integer[] keys = sortedKeys(n);
+		// Each run rebuilds the tree, so the build alone is the baseline to subtract
+		report("build only, n=" + n, 1, () -> myBSTree.fromSorted(keys).size());
+		for (int expired : new int[] { 1_000, 100_000, 900_000 }) {
+			Integer watermark = keys[expired];
+			report("removeMin loop, n=" + n + " k=" + expired, 1, () -> {
+				myBSTree<Integer> live = myBSTree.fromSorted(keys);
+				while (live.first() < watermark)
+					live.removeMin();
+				return live.size();
+			});
+			report("headTree, n=" + n + " k=" + expired, 1, () -> {
+				myBSTree<Integer> live = myBSTree.fromSorted(keys);
+				return live.headTree(watermark).size() + live.size();
+			});
+		}
+	}
+
+	/**
+	 * Removes half the keys of a balanced tree in random order, eagerly and with tombstones at two
+	 * compaction ratios, and then looks up every key, to show what the tombstones cost the readers.
+	 */
+	static void removalScenario() {
+		System.out.println("== eager vs lazy removal by key ==");
+		int n = 1_000_000;
+		Integer[] keys = sortedKeys(n);
+		Integer[] victims = Arrays.copyOf(shuffledKeys(n, 42), n / 2);
+		for (double ratio : new double[] { 0, 0.25, 0.5 }) {
+			myBSTree<Integer> tree = myBSTree.balanced();
+			report("remove n/2, ratio=" + ratio, victims.length, () -> {
+				// Refill the same tree, so the lookups below see the state the removals left
+				tree.clear();
+				tree.union(myBSTree.fromSorted(keys));
+				tree.setCompactionRatio(ratio);
+				for (Integer key : victims)
+					tree.remove(key);
+				return tree.size();
+			});
+			report("search after, ratio=" + ratio, n, () -> searchAll(tree, keys, false));
+		}
+	}
+
+	/**
+	 * Compares lookups in a plain and a balanced {@link myBSTree} with {@code search} and
+	 * {@code contains} on a {@link SplayBSTree}, for uniformly and Zipf-distributed probes over the same
+	 * keys. The hot keys are scattered over the key range and unrelated to the insertion order, so their
+	 * depth in the static trees is arbitrary.
+	 */
+	static void zipfScenario() {
+		System.out.println("== plain vs balanced vs splay on skewed lookups ==");
+		int n = 1_000_000;
+		int lookups = 2_000_000;
+		Integer[] shuffled = shuffledKeys(n, 5);
+		myBSTree<Integer> plain = new myBSTree<>();
+		myBSTree<Integer> balanced = myBSTree.fromSorted(sortedKeys(n));
+		SplayBSTree<Integer> splay = new SplayBSTree<>();
+		for (Integer key : shuffled) {
+			plain.add(key);
+			splay.add(key);
+		}
+		// Rank keys by popularity in an order unrelated to the insertion order
+		Integer[] popularity = shuffledKeys(n, 6);
+		Random random = new Random(17);
+		Integer[] uniform = new Integer[lookups];
+		for (int i = 0; i < lookups; i++)
+			uniform[i] = shuffled[random.nextInt(n)];
+		for (double exponent : new double[] { 0, 0.8, 1.0, 1.2 }) {
+			Integer[] probes = (exponent == 0) ? uniform : zipfKeys(popularity, lookups, exponent, 23);
+			String label = (exponent == 0) ? "uniform" : "zipf s=" + exponent;
+			report("plain search, " + label, lookups, () -> searchAll(plain, probes, false));
+			report("balanced search, " + label, lookups, () -> searchAll(balanced, probes, false));
+			// search copies each element it finds into a new, detached node; contains shows the walk alone
+			report("splay search, " + label, lookups, () -> {
+				long found = 0;
+				for (Integer probe : probes) {
+					BSTreeNode<Integer> node = splay.search(probe);
+					if (node != null)
+						found += node.getElement();
+				}
+				return found;
+			});
+			report("splay contains, " + label, lookups, () -> {
+				long found = 0;
+				for (Integer probe : probes)
+					if (splay.contains(probe))
+						found++;
+				return found;
+			});
+		}
+	}
+
+	/**
+	 * Draws keys with Zipf-distributed popularity: the key at index i of the array is drawn with
+	 * probability proportional to 1 / (i + 1)^exponent.
+	 */
+	static Integer[] zipfKeys(Integer[] keys, int count, double exponent, long seed) {
+		double[] cumulative = new double[keys.length];
+		double total = 0;
+		for (int i = 0; i < keys.length; i++) {
+			total += 1 / Math.pow(i + 1, exponent);
+			cumulative[i] = total;
+		}
+		Random random = new Random(seed);
+		Integer[] drawn = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+			drawn[i] = keys[Math.min((index < 0) ? -index - 1 : index, keys.length - 1)];
+		}
+		return drawn;
+	}
+
+	/**
+	 * Compares insertion into a {@link TreapBSTree} with a balanced (AVL) {@link myBSTree}, for sorted
+	 * and shuffled keys, prints the heights both reach, and times a treap split and merge.
+	 */
+	static void treapScenario() {
+		System.out.println("== treap vs AVL insertion, treap split/merge ==");
+		int n = 1_000_000;
+		for (boolean sorted : new boolean[] { true, false }) {
+			Integer[] keys = sorted ? sortedKeys(n) : shuffledKeys(n, 5);
+			String order = sorted ? "sorted" : "shuffled";
+			report("myBSTree (AVL) add " + order + ", n=" + n, n, () -> {
+				myBSTree<Integer> tree = myBSTree.balanced();
+				for (Integer key : keys)
+					tree.add(key);
+				return tree.getHeight();
+			});
+			report("TreapBSTree add " + order + ", n=" + n, n, () -> {
+				TreapBSTree<Integer> tree = new TreapBSTree<>(7);
+				for (Integer key : keys)
+					tree.add(key);
+				return tree.getHeight();
+			});
+			myBSTree<Integer> avl = myBSTree.balanced();
+			TreapBSTree<Integer> treap = new TreapBSTree<>(7);
+			for (Integer key : keys) {
+				avl.add(key);
+				treap.add(key);
+			}
+			System.out.printf("%-50s %10d AVL, %d treap%n", "height after " + order + " add", avl.getHeight(), treap.getHeight());
+		}
+
+		TreapBSTree<Integer> treap = new TreapBSTree<>(7);
+		for (Integer key : shuffledKeys(n, 5))
+			treap.add(key);
+		Integer[] cuts = shuffledKeys(n, 6);
+		int rounds = 100_000;
+		// merge returns a new tree, so each run carries on from the one the previous run left
+		AtomicReference<TreapBSTree<Integer>> current = new AtomicReference<>(treap);
+		report("TreapBSTree split + merge, n=" + n, rounds, () -> {
+			TreapBSTree<Integer> tree = current.get();
+			for (int i = 0; i < rounds; i++)
+				tree = TreapBSTree.merge(tree, tree.split(cuts[i]));
+			current.set(tree);
+			return tree.size();
+		});
+	}
+
+	/**
+	 * A timed piece of work. The returned value is folded into a sink so the JIT cannot drop the work.
+	 */
+	interface Task {
+		long run();
+	}
+
+	private static long sink;
+
+	/**
+	 * Runs a task once to warm up and then {@value #ROUNDS} more times, printing the best time per
+	 * operation.
+	 *
+	 * @param label      The label to print.
+	 * @param operations The number of operations one run of the task performs.
+	 * @param task       The work to time.
+	 */
+	static void report(String label, long operations, Task task) {
+		sink += task.run();
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			sink += task.run();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		System.out.printf("%-50s %10.1f ns/op%n", label, (double) best / operations);
+	}
+
+	static Integer[] sortedKeys(int n) {
+		Integer[] keys = new Integer[n];
+		for (int i = 0; i < n; i++)
+			keys[i] = i;
+		return keys;
+	}
+
+	static Integer[] shuffledKeys(int n, long seed) {
+		Integer[] keys = sortedKeys(n);
+		Random random = new Random(seed);
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Integer swap = keys[i];
+			keys[i] = keys[j];
+			keys[j] = swap;
+		}
+		return keys;
+	}
+
+	private static boolean contains(String[] args, String name) {
+		for (String arg : args)
+			if (arg.equals(name))
+				return true;
+		return false;
+	}
+}
@@ -0,0 +1,145 @@
+package utilities;
+
+import java.util.NoSuchElementException;
+
+/**
+ * The `BSTreeIterators` class holds the stack-based traversals shared by the tree implementations
+ * built from {@link BSTreeNode}s. Each iterator walks the nodes reachable from the root it was given,
+ * using an {@link ArrayStack} sized from the cached subtree height, and skips nodes marked deleted.
+ */
+final class BSTreeIterators {
+	private BSTreeIterators() {
+	}
+
+	/**
+	 * Sizes a traversal stack from the cached height, so it rarely has to grow.
+	 */
+	static int stackCapacity(BSTreeNode<?> node) {
+		return (node == null) ? 1 : node.getHeight() + 1;
+	}
+
+	static class InorderIterator<E> implements Iterator<E> {
+		private ArrayStack<BSTreeNode<E>> stack;
+
+		public InorderIterator(BSTreeNode<E> root) {
+			stack = new ArrayStack<>(stackCapacity(root));
+			pushLeft(root);
+		}
+
+		private void pushLeft(BSTreeNode<E> node) {
+			while (true) {
+				while (node != null) {
+					stack.push(node);
+					node = node.getLeft();
+				}
+				// Keep a live node on top, so hasNext() stays a plain check
+				if (stack.isEmpty() || !stack.peek().isDeleted())
+					return;
+				node = stack.pop().getRight();
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !stack.isEmpty();
+		}
+
+		@Override
+		public E next() throws NoSuchElementException {
+			if (!hasNext())
+				throw new NoSuchElementException("No more elements in the iterator.");
+			BSTreeNode<E> current = stack.pop();
+			pushLeft(current.getRight());
+			return current.getElement();
+		}
+	}
+
+	static class PreorderIterator<E> implements Iterator<E> {
+		private ArrayStack<BSTreeNode<E>> stack;
+
+		public PreorderIterator(BSTreeNode<E> root) {
+			stack = new ArrayStack<>(stackCapacity(root));
+			if (root != null)
+				stack.push(root);
+			skipDeleted();
+		}
+
+		private void pushChildren(BSTreeNode<E> node) {
+			if (node.getRight() != null)
+				stack.push(node.getRight());
+			if (node.getLeft() != null)
+				stack.push(node.getLeft());
+		}
+
+		private void skipDeleted() {
+			while (!stack.isEmpty() && stack.peek().isDeleted())
+				pushChildren(stack.pop());
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !stack.isEmpty();
+		}
+
+		@Override
+		public E next() throws NoSuchElementException {
+			if (!hasNext())
+				throw new NoSuchElementException("No more elements in the iterator.");
+			BSTreeNode<E> current = stack.pop();
+			pushChildren(current);
+			skipDeleted();
+			return current.getElement();
+		}
+	}
+
+	static class PostorderIterator<E> implements Iterator<E> {
+		private ArrayStack<BSTreeNode<E>> stack;
+		private BSTreeNode<E> lastVisited;
+		private BSTreeNode<E> next;
+
+		public PostorderIterator(BSTreeNode<E> root) {
+			stack = new ArrayStack<>(stackCapacity(root));
+			lastVisited = null;
+			pushLeftmostPath(root);
+			next = advance();
+		}
+
+		private void pushLeftmostPath(BSTreeNode<E> node) {
+			while (node != null) {
+				stack.push(node);
+				node = node.getLeft();
+			}
+		}
+
+		/**
+		 * Finds the next live node in postorder, or null at the end.
+		 */
+		private BSTreeNode<E> advance() {
+			while (!stack.isEmpty()) {
+				BSTreeNode<E> current = stack.peek();
+				if (current.getRight() == null || current.getRight() == lastVisited) {
+					lastVisited = stack.pop();
+					if (!lastVisited.isDeleted())
+						return lastVisited;
+				} else {
+					pushLeftmostPath(current.getRight());
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public E next() throws NoSuchElementException {
+			if (!hasNext())
+				throw new NoSuchElementException("No more elements in the iterator.");
+			E element = next.getElement();
+			next = advance();
+			return element;
+		}
+	}
+}
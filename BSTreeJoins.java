@@ -0,0 +1,224 @@
+package utilities;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The `BSTreeJoins` class holds the join-based algorithms on height-balanced (AVL) trees of
+ * {@link BSTreeNode}s. Everything is built on two primitives: {@link #join} links two trees around a
+ * pivot node in time proportional to their difference in height, and {@link #split} cuts a tree at a
+ * key in time proportional to its height. The set operations recurse on independent subtrees, in
+ * parallel once the subtrees are large enough.
+ * <p>
+ * All methods work in place: the nodes of the trees passed in are relinked into the result and must
+ * not be used through their old roots afterwards. Recursion depth is bounded by the tree heights.
+ */
+final class BSTreeJoins {
+	// Below this many nodes in both operands together, a set operation runs on the calling thread
+	private static final int PARALLEL_THRESHOLD = 1 << 13;
+	private static final int UNION = 0, INTERSECTION = 1, DIFFERENCE = 2;
+
+	private BSTreeJoins() {
+	}
+
+	/**
+	 * The two halves of a tree cut at a key, and the node holding the key if there was one.
+	 */
+	static class Split<E> {
+		final BSTreeNode<E> left, match, right;
+
+		Split(BSTreeNode<E> left, BSTreeNode<E> match, BSTreeNode<E> right) {
+			this.left = left;
+			this.match = match;
+			this.right = right;
+		}
+	}
+
+	/**
+	 * Links every element of the left tree, the pivot and every element of the right tree, in that
+	 * order, into one balanced tree. The pivot's old children are discarded.
+	 */
+	static <E> BSTreeNode<E> join(BSTreeNode<E> left, BSTreeNode<E> pivot, BSTreeNode<E> right) {
+		int leftHeight = heightOf(left), rightHeight = heightOf(right);
+		if (leftHeight > rightHeight + 1) {
+			// Descend the right spine of the taller tree to a subtree of matching height
+			left.setRight(join(left.getRight(), pivot, right));
+			return balance(left);
+		}
+		if (rightHeight > leftHeight + 1) {
+			right.setLeft(join(left, pivot, right.getLeft()));
+			return balance(right);
+		}
+		pivot.setLeft(left);
+		pivot.setRight(right);
+		return pivot;
+	}
+
+	/**
+	 * Links every element of the left tree and then every element of the right tree into one balanced
+	 * tree, using the smallest node of the right tree as the pivot.
+	 */
+	static <E> BSTreeNode<E> join(BSTreeNode<E> left, BSTreeNode<E> right) {
+		if (left == null)
+			return right;
+		if (right == null)
+			return left;
+		BSTreeNode<E> pivot = right;
+		while (pivot.getLeft() != null)
+			pivot = pivot.getLeft();
+		return join(left, pivot, withoutMin(right));
+	}
+
+	private static <E> BSTreeNode<E> withoutMin(BSTreeNode<E> node) {
+		if (node.getLeft() == null)
+			return node.getRight();
+		node.setLeft(withoutMin(node.getLeft()));
+		return balance(node);
+	}
+
+	/**
+	 * Cuts a tree into the elements below the key and those above it. The node holding the key, if
+	 * any, is returned detached.
+	 */
+	static <E extends Comparable<? super E>> Split<E> split(BSTreeNode<E> node, E key) {
+		if (node == null)
+			return new Split<>(null, null, null);
+		int compare = key.compareTo(node.getElement());
+		if (compare == 0) {
+			BSTreeNode<E> left = node.getLeft(), right = node.getRight();
+			node.setLeft(null);
+			node.setRight(null);
+			return new Split<>(left, node, right);
+		}
+		if (compare < 0) {
+			Split<E> below = split(node.getLeft(), key);
+			return new Split<>(below.left, below.match, join(below.right, node, node.getRight()));
+		}
+		Split<E> above = split(node.getRight(), key);
+		return new Split<>(join(node.getLeft(), node, above.left), above.match, above.right);
+	}
+
+	/**
+	 * Returns the union of two trees. Elements of the first tree win over equal elements of the second.
+	 */
+	static <E extends Comparable<? super E>> BSTreeNode<E> union(BSTreeNode<E> first, BSTreeNode<E> second) {
+		return run(UNION, first, second);
+	}
+
+	/**
+	 * Returns the elements of the first tree that are also in the second.
+	 */
+	static <E extends Comparable<? super E>> BSTreeNode<E> intersection(BSTreeNode<E> first, BSTreeNode<E> second) {
+		return run(INTERSECTION, first, second);
+	}
+
+	/**
+	 * Returns the elements of the first tree that are not in the second.
+	 */
+	static <E extends Comparable<? super E>> BSTreeNode<E> difference(BSTreeNode<E> first, BSTreeNode<E> second) {
+		return run(DIFFERENCE, first, second);
+	}
+
+	private static <E extends Comparable<? super E>> BSTreeNode<E> run(int kind, BSTreeNode<E> first, BSTreeNode<E> second) {
+		if (isSmall(first, second))
+			return combine(kind, first, second);
+		return ForkJoinPool.commonPool().invoke(new SetOperation<>(kind, first, second));
+	}
+
+	private static boolean isSmall(BSTreeNode<?> first, BSTreeNode<?> second) {
+		return countOf(first) + countOf(second) < PARALLEL_THRESHOLD;
+	}
+
+	/**
+	 * Runs a set operation on the calling thread: split the second tree at the root of the first,
+	 * combine the two pairs of halves, and join the results around the root if it is kept.
+	 */
+	private static <E extends Comparable<? super E>> BSTreeNode<E> combine(int kind, BSTreeNode<E> first, BSTreeNode<E> second) {
+		if (first == null)
+			return (kind == UNION) ? second : null;
+		if (second == null)
+			return (kind == INTERSECTION) ? null : first;
+		BSTreeNode<E> pivotLeft = first.getLeft(), pivotRight = first.getRight();
+		Split<E> halves = split(second, first.getElement());
+		BSTreeNode<E> left = combine(kind, pivotLeft, halves.left);
+		BSTreeNode<E> right = combine(kind, pivotRight, halves.right);
+		return joinResults(kind, left, first, halves.match != null, right);
+	}
+
+	private static <E> BSTreeNode<E> joinResults(int kind, BSTreeNode<E> left, BSTreeNode<E> pivot, boolean matched, BSTreeNode<E> right) {
+		boolean keepPivot = (kind == UNION) || ((kind == INTERSECTION) == matched);
+		return keepPivot ? join(left, pivot, right) : join(left, right);
+	}
+
+	/**
+	 * Restores the AVL invariant at a node whose subtrees differ in height by at most two, with at
+	 * most two rotations, and refreshes the cached fields on the way.
+	 */
+	static <E> BSTreeNode<E> balance(BSTreeNode<E> node) {
+		node.update();
+		int balance = heightOf(node.getLeft()) - heightOf(node.getRight());
+		if (balance > 1) {
+			if (heightOf(node.getLeft().getLeft()) < heightOf(node.getLeft().getRight()))
+				node.setLeft(rotateLeft(node.getLeft()));
+			return rotateRight(node);
+		}
+		if (balance < -1) {
+			if (heightOf(node.getRight().getRight()) < heightOf(node.getRight().getLeft()))
+				node.setRight(rotateRight(node.getRight()));
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	private static <E> BSTreeNode<E> rotateRight(BSTreeNode<E> node) {
+		BSTreeNode<E> pivot = node.getLeft();
+		node.setLeft(pivot.getRight());
+		pivot.setRight(node);
+		return pivot;
+	}
+
+	private static <E> BSTreeNode<E> rotateLeft(BSTreeNode<E> node) {
+		BSTreeNode<E> pivot = node.getRight();
+		node.setRight(pivot.getLeft());
+		pivot.setLeft(node);
+		return pivot;
+	}
+
+	private static int heightOf(BSTreeNode<?> node) {
+		return (node == null) ? -1 : node.getHeight();
+	}
+
+	private static int countOf(BSTreeNode<?> node) {
+		return (node == null) ? 0 : node.getNumberNodes();
+	}
+
+	/**
+	 * A set operation on operands large enough to split the work: like {@link BSTreeJoins#combine},
+	 * but one pair of halves is forked while the calling thread combines the other.
+	 */
+	private static class SetOperation<E extends Comparable<? super E>> extends RecursiveTask<BSTreeNode<E>> {
+		private static final long serialVersionUID = 3386452201694012744L;
+
+		private final int kind;
+		private final BSTreeNode<E> first, second;
+
+		SetOperation(int kind, BSTreeNode<E> first, BSTreeNode<E> second) {
+			this.kind = kind;
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		protected BSTreeNode<E> compute() {
+			if (first == null || second == null || isSmall(first, second))
+				return combine(kind, first, second);
+			BSTreeNode<E> pivotLeft = first.getLeft(), pivotRight = first.getRight();
+			Split<E> halves = split(second, first.getElement());
+			SetOperation<E> below = new SetOperation<>(kind, pivotLeft, halves.left);
+			below.fork();
+			BSTreeNode<E> right = new SetOperation<>(kind, pivotRight, halves.right).compute();
+			BSTreeNode<E> left = below.join();
+			return joinResults(kind, left, first, halves.match != null, right);
+		}
+	}
+}
@@ -6,6 +6,9 @@ package utilities;
 public class BSTreeNode<E> {
 	private E element;
 	private BSTreeNode<E> left, right;
+	private int height;
+	private int numberNodes;
+	private boolean deleted;
 
 	/**
 	 * Constructs a new node with the specified element and children.
@@ -18,6 +21,7 @@ public class BSTreeNode<E> {
 		this.element = elem;
 		this.left = left;
 		this.right = right;
+		update();
 	}
 
 	/**
@@ -63,6 +67,7 @@ public class BSTreeNode<E> {
 	 */
 	public void setLeft(BSTreeNode<E> left) {
 		this.left = left;
+		update();
 	}
 
 	/**
@@ -72,6 +77,7 @@ public class BSTreeNode<E> {
 	 */
 	public void setRight(BSTreeNode<E> right) {
 		this.right = right;
+		update();
 	}
 
 	/**
@@ -102,34 +108,57 @@ public class BSTreeNode<E> {
 	}
 
 	/**
-	 * Returns the number of nodes in the subtree rooted at this node.
+	 * Checks if the node is a tombstone: its element has been removed from the tree, but the node is
+	 * still linked in to guide searches until the tree is compacted.
 	 *
-	 * @return The number of nodes in the subtree.
+	 * @return {@code true} if the node is marked deleted, {@code false} otherwise.
+	 */
+	public boolean isDeleted() {
+		return this.deleted;
+	}
+
+	/**
+	 * Marks or unmarks the node as deleted and refreshes its cached count. The tree refreshes the
+	 * ancestors.
+	 *
+	 * @param deleted {@code true} to mark the node deleted.
+	 */
+	void setDeleted(boolean deleted) {
+		this.deleted = deleted;
+		update();
+	}
+
+	/**
+	 * Returns the number of nodes in the subtree rooted at this node, not counting nodes marked
+	 * deleted. Like the height, the count is cached in the node, so this runs in constant time.
+	 *
+	 * @return The number of live nodes in the subtree.
 	 */
 	public int getNumberNodes() {
-		// Base case: if the current node is a leaf node, return 1
-		if (isLeaf())
-			return 1;
-		// Recursively count nodes in left and right subtrees
-		int leftCount = (this.left == null) ? 0 : this.left.getNumberNodes();
-		int rightCount = (this.right == null) ? 0 : this.right.getNumberNodes();
-		// Return total count including the current node
-		return 1 + leftCount + rightCount;
+		return this.numberNodes;
 	}
 
 	/**
-	 * Returns the height of the subtree rooted at this node.
+	 * Returns the height of the subtree rooted at this node. The value is kept in
+	 * the node and refreshed whenever a child is set, so this runs in constant time.
 	 *
 	 * @return The height of the subtree.
 	 */
 	public int getHeight() {
-		// Base case: if the current node is a leaf node, return 0
-		if (isLeaf())
-			return 0;
-		// Recursively calculate height of left and right subtrees
-		int leftHeight = (this.left == null) ? 0 : this.left.getHeight();
-		int rightHeight = (this.right == null) ? 0 : this.right.getHeight();
-		// Return the maximum height of left or right subtree, plus 1 for the current node
-		return 1 + Math.max(leftHeight, rightHeight);
+		return this.height;
+	}
+
+	/**
+	 * Recomputes the cached height and node count of this node from its children. The
+	 * tree calls this on every ancestor of a changed link, bottom up.
+	 */
+	void update() {
+		// A leaf has height 0, a missing child counts as -1
+		int leftHeight = (this.left == null) ? -1 : this.left.height;
+		int rightHeight = (this.right == null) ? -1 : this.right.height;
+		this.height = 1 + Math.max(leftHeight, rightHeight);
+		int leftCount = (this.left == null) ? 0 : this.left.numberNodes;
+		int rightCount = (this.right == null) ? 0 : this.right.numberNodes;
+		this.numberNodes = (this.deleted ? 0 : 1) + leftCount + rightCount;
 	}
 }
\ No newline at end of file
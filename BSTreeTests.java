@@ -2,6 +2,16 @@ package utilities;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -211,4 +221,607 @@ class BSTreeTests {
 
 
 
+	@Test
+	void testBalancedSortedInsertHeight()
+	{
+		myBSTree<Integer> balancedTree = myBSTree.balanced();
+		for (int i = 1; i <= 1023; i++)
+			assertTrue(balancedTree.add(i), "Adding a new element to a balanced tree should return true");
+		assertEquals(1023, balancedTree.size(), "Balanced tree should hold every added element");
+		assertEquals(9, balancedTree.getHeight(), "Sorted insertion into a balanced tree should stay perfectly balanced");
+	}
+
+	@Test
+	void testBalancedRemoveMinMaxKeepsOrder()
+	{
+		myBSTree<Integer> balancedTree = new myBSTree<>(true);
+		for (int i = 0; i < 100; i++)
+			balancedTree.add(i);
+		for (int i = 0; i < 30; i++)
+			assertEquals(i, balancedTree.removeMin().getElement(), "removeMin should return elements in ascending order");
+		for (int i = 99; i >= 70; i--)
+			assertEquals(i, balancedTree.removeMax().getElement(), "removeMax should return elements in descending order");
+		assertEquals(40, balancedTree.size(), "Size should drop after each removal");
+		assertTrue(balancedTree.getHeight() <= 6, "Removals should keep the balanced tree logarithmic");
+		Iterator<Integer> iterator = balancedTree.inorderIterator();
+		for (int i = 30; i < 70; i++)
+			assertEquals(i, iterator.next(), "Inorder traversal should stay sorted after rebalancing");
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	void testSelectAndRank()
+	{
+		int[] keys = { 50, 30, 70, 20, 40, 60, 80 };
+		for (int key : keys)
+			tree.add(key);
+		for (int k = 0; k < 7; k++)
+			assertEquals(20 + 10 * k, tree.select(k), "select should return the k-th smallest element");
+		assertEquals(0, tree.rank(10), "No element is smaller than 10");
+		assertEquals(3, tree.rank(50), "Three elements are smaller than 50");
+		assertEquals(4, tree.rank(55), "rank should work for elements not in the tree");
+		assertEquals(7, tree.rank(90), "Every element is smaller than 90");
+		assertThrows(IndexOutOfBoundsException.class, () -> tree.select(7));
+	}
+
+	@Test
+	void testAddRecursivelyMatchesAdd()
+	{
+		myBSTree<Integer> recursive = myBSTree.balanced();
+		myBSTree<Integer> iterative = myBSTree.balanced();
+		int[] keys = { 50, 30, 70, 20, 40, 60, 80, 10, 90, 5, 95 };
+		for (int key : keys) {
+			assertTrue(recursive.addRecursively(key));
+			iterative.add(key);
+		}
+		assertFalse(recursive.addRecursively(40), "A duplicate should not be added");
+		assertEquals(iterative.getHeight(), recursive.getHeight());
+		assertEquals(preorderOf(iterative), preorderOf(recursive), "Both paths should build the same tree");
+		assertEquals(5, recursive.peekMin().getElement());
+		assertEquals(95, recursive.peekMax().getElement());
+
+		tree.setCompactionRatio(0.9);
+		for (int key : keys)
+			tree.addRecursively(key);
+		assertTrue(tree.remove(40));
+		assertTrue(tree.addRecursively(40), "Adding a removed element should revive it");
+		assertEquals(11, tree.size());
+		assertEquals(11, tree.getRoot().getNumberNodes());
+		assertEquals(Integer.valueOf(40), tree.select(4));
+		assertEquals(5, tree.removeMin().getElement());
+		assertEquals(10, tree.peekMin().getElement());
+	}
+
+	@Test
+	void testNodeCountsAfterRemovals()
+	{
+		for (int i = 1; i <= 20; i++)
+			tree.add(i);
+		tree.removeMin();
+		tree.removeMax();
+		assertEquals(18, tree.getRoot().getNumberNodes(), "Root count should track removals");
+		assertEquals(17, tree.getHeight(), "Height of a degenerate tree should track removals");
+		assertEquals(2, tree.select(0), "select should see the new minimum");
+		assertEquals(17, tree.rank(19), "rank should see the removed maximum");
+	}
+
+	@Test
+	void testDegenerateTreeIsStackSafe()
+	{
+		int n = 20000;
+		for (int i = 0; i < n; i++)
+			assertTrue(tree.add(i), "Adding sorted keys should succeed without overflowing the stack");
+		assertEquals(n - 1, tree.getHeight(), "Sorted keys should build a degenerate tree");
+		assertTrue(tree.contains(n - 1), "The deepest key should be found");
+		assertFalse(tree.contains(n), "A key past the deepest leaf should not be found");
+		assertFalse(tree.add(n - 1), "Adding a duplicate at the bottom should return false");
+	}
+
+	@Test
+	void testFromSortedIsBalanced()
+	{
+		Integer[] keys = new Integer[1000];
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = i * 2;
+		myBSTree<Integer> built = myBSTree.fromSorted(keys);
+		assertEquals(1000, built.size(), "Bulk load should keep every element");
+		assertEquals(9, built.getHeight(), "Bulk load should build a perfectly balanced tree");
+		assertEquals(1000, built.getRoot().getNumberNodes(), "Bulk load should set node counts");
+		assertEquals(998, built.select(499), "Bulk load should keep the elements in order");
+		assertTrue(built.add(1), "A bulk loaded tree should accept new elements");
+	}
+
+	@Test
+	void testFromSortedUnsortedInput()
+	{
+		SLL<Integer> list = new SLL<>();
+		int[] keys = { 5, 3, 9, 3, 1, 9, 7 };
+		for (int key : keys)
+			list.add(key);
+		myBSTree<Integer> built = myBSTree.fromSorted(list);
+		assertEquals(5, built.size(), "Unsorted input should be sorted and deduplicated");
+		Iterator<Integer> iterator = built.inorderIterator();
+		for (int expected = 1; expected <= 9; expected += 2)
+			assertEquals(expected, iterator.next(), "Unsorted input should come out in order");
+		myBSTree<Integer> copied = myBSTree.fromSorted(built.inorderIterator());
+		assertEquals(5, copied.size(), "Building from an iterator should keep every element");
+		assertEquals(2, copied.getHeight(), "Building from an iterator should balance the tree");
+	}
+
+	@Test
+	void testRangeIterator()
+	{
+		for (int i = 0; i < 100; i += 5)
+			tree.add(i);
+		Iterator<Integer> iterator = tree.rangeIterator(20, 40);
+		StringBuilder result = new StringBuilder();
+		while (iterator.hasNext())
+			result.append(iterator.next()).append(" ");
+		assertEquals("20 25 30 35 ", result.toString(), "Range should include the low bound and exclude the high bound");
+
+		iterator = tree.rangeIterator(20, false, 40, true);
+		result = new StringBuilder();
+		while (iterator.hasNext())
+			result.append(iterator.next()).append(" ");
+		assertEquals("25 30 35 40 ", result.toString(), "Range bounds should honour the inclusive flags");
+
+		assertFalse(tree.rangeIterator(41, 44).hasNext(), "A range between elements should be empty");
+		assertFalse(tree.rangeIterator(60, 10).hasNext(), "An inverted range should be empty");
+	}
+
+	@Test
+	void testCountInRange()
+	{
+		for (int i = 0; i < 100; i += 5)
+			tree.add(i);
+		assertEquals(4, tree.countInRange(20, 40), "countInRange should match the half-open range");
+		assertEquals(5, tree.countInRange(20, true, 40, true), "countInRange should include both bounds when asked");
+		assertEquals(3, tree.countInRange(20, false, 40, false), "countInRange should exclude both bounds when asked");
+		assertEquals(20, tree.countInRange(-1, 1000), "countInRange should count the whole tree");
+		assertEquals(0, tree.countInRange(60, 10), "An inverted range should count nothing");
+	}
+
+	@Test
+	void testNavigation()
+	{
+		assertNull(tree.first(), "An empty tree has no first element");
+		assertNull(tree.floor(10), "An empty tree has no floor");
+		int[] keys = { 50, 30, 70, 20, 40, 60, 80 };
+		for (int key : keys)
+			tree.add(key);
+		assertEquals(20, tree.first(), "first should return the smallest element");
+		assertEquals(80, tree.last(), "last should return the largest element");
+		assertEquals(40, tree.floor(45), "floor should round down");
+		assertEquals(40, tree.floor(40), "floor should accept an exact match");
+		assertEquals(30, tree.lower(40), "lower should skip an exact match");
+		assertEquals(50, tree.ceiling(45), "ceiling should round up");
+		assertEquals(60, tree.higher(50), "higher should skip an exact match");
+		assertNull(tree.floor(10), "Nothing is at or below 10");
+		assertNull(tree.higher(80), "Nothing is above the largest element");
+		assertEquals(7, tree.size(), "Navigation should not change the tree");
+	}
+
+	@Test
+	void testPeekMinMax()
+	{
+		assertNull(tree.peekMin(), "An empty tree has no minimum");
+		assertNull(tree.peekMax(), "An empty tree has no maximum");
+		int[] keys = { 50, 30, 70, 20, 40, 60, 80 };
+		for (int key : keys)
+			tree.add(key);
+		assertEquals(20, tree.peekMin().getElement(), "peekMin should return the smallest element");
+		assertEquals(80, tree.peekMax().getElement(), "peekMax should return the largest element");
+		assertEquals(7, tree.size(), "Peeking should not remove anything");
+		tree.add(10);
+		assertEquals(10, tree.peekMin().getElement(), "peekMin should follow a new minimum");
+	}
+
+	@Test
+	void testPeekBetweenRemovals()
+	{
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(7);
+		for (int i = 0; i < 2000; i++) {
+			int key = random.nextInt(10_000);
+			tree.add(key);
+			expected.add(key);
+		}
+		for (int round = 0; !expected.isEmpty(); round++) {
+			assertEquals(expected.first(), tree.peekMin().getElement());
+			assertEquals(expected.last(), tree.peekMax().getElement());
+			if (round % 50 < 40)
+				assertEquals(expected.pollFirst(), tree.removeMin().getElement());
+			else
+				assertEquals(expected.pollLast(), tree.removeMax().getElement());
+			if (round % 97 == 0) {
+				int key = random.nextInt(10_000);
+				assertEquals(expected.add(key), tree.add(key));
+				assertEquals(expected.size(), tree.getRoot().getNumberNodes(), "Settled counts should match the contents");
+			}
+			assertEquals(expected.size(), tree.size());
+		}
+		assertNull(tree.peekMin());
+		assertNull(tree.peekMax());
+		assertNull(tree.getRoot());
+	}
+
+	@Test
+	void testDrainFromBothEnds()
+	{
+		int[] keys = { 50, 30, 70, 20, 40, 60, 80, 35, 45, 65 };
+		for (int key : keys)
+			tree.add(key);
+		assertEquals(20, tree.removeMin().getElement());
+		assertEquals(30, tree.removeMin().getElement());
+		assertEquals(35, tree.peekMin().getElement(), "peekMin should follow the drain");
+		tree.add(33);
+		assertEquals(33, tree.removeMin().getElement(), "A new minimum added mid-drain should come out next");
+		assertEquals(80, tree.removeMax().getElement());
+		assertEquals(7, tree.getRoot().getNumberNodes(), "Node counts should be settled after draining");
+		assertEquals(2, tree.rank(45), "rank should see the drained elements");
+		int previous = Integer.MIN_VALUE;
+		while (!tree.isEmpty()) {
+			int next = tree.removeMin().getElement();
+			assertTrue(next > previous, "removeMin should drain in ascending order");
+			previous = next;
+		}
+		assertNull(tree.peekMin(), "A drained tree has no minimum");
+		assertNull(tree.peekMax(), "A drained tree has no maximum");
+		assertEquals(0, tree.getHeight(), "A drained tree should have no height");
+	}
+
+	@Test
+	void testForEachInOrder()
+	{
+		int[] keys = { 50, 30, 70, 20, 40, 60, 80, 35, 45 };
+		for (int key : keys)
+			tree.add(key);
+		StringBuilder result = new StringBuilder();
+		tree.forEachInOrder(element -> result.append(element).append(" "));
+		assertEquals("20 30 35 40 45 50 60 70 80 ", result.toString(), "Morris traversal should visit in ascending order");
+		assertEquals("50 30 20 40 35 45 70 60 80 ", preorder(), "Morris traversal should restore the tree shape");
+		assertEquals(3, tree.getHeight(), "Morris traversal should restore the cached heights");
+	}
+
+	@Test
+	void testForEachInOrderRestoresAfterFailure()
+	{
+		int[] keys = { 50, 30, 70, 20, 40, 60, 80, 35, 45 };
+		for (int key : keys)
+			tree.add(key);
+		StringBuilder result = new StringBuilder();
+		assertThrows(IllegalStateException.class, () -> tree.forEachInOrder(element -> {
+			if (element == 40)
+				throw new IllegalStateException("stop");
+			result.append(element).append(" ");
+		}));
+		assertEquals("20 30 35 ", result.toString(), "Elements after the failure should not be visited");
+		assertEquals("50 30 20 40 35 45 70 60 80 ", preorder(), "An abandoned Morris traversal should restore the tree shape");
+		assertEquals(9, tree.getRoot().getNumberNodes(), "An abandoned Morris traversal should restore the node counts");
+	}
+
+	private String preorder()
+	{
+		return preorderOf(tree);
+	}
+
+	private static String preorderOf(BSTreeADT<Integer> source)
+	{
+		StringBuilder result = new StringBuilder();
+		Iterator<Integer> iterator = source.preorderIterator();
+		while (iterator.hasNext())
+			result.append(iterator.next()).append(" ");
+		return result.toString();
+	}
+
+	@Test
+	void testStreams()
+	{
+		for (int i = 1; i <= 1000; i++)
+			tree.add(i);
+		assertEquals(500500L, tree.stream().mapToLong(Integer::longValue).sum(), "A sequential stream should see every element");
+		assertEquals(500500L, tree.parallelStream().mapToLong(Integer::longValue).sum(), "A parallel stream should see every element");
+		assertEquals(tree.stream().collect(Collectors.toList()),
+				tree.parallelStream().collect(Collectors.toList()),
+				"A parallel stream should keep the ascending order");
+	}
+
+	@Test
+	void testSpliteratorSplitsDisjointRanges()
+	{
+		myBSTree<Integer> built = myBSTree.fromSorted(new Integer[] { 1, 2, 3, 4, 5, 6, 7 });
+		Spliterator<Integer> suffix = built.spliterator();
+		assertTrue(suffix.hasCharacteristics(Spliterator.SORTED | Spliterator.SIZED));
+		Spliterator<Integer> prefix = suffix.trySplit();
+		assertEquals(3, prefix.estimateSize(), "The prefix should take the left subtree");
+		assertEquals(4, suffix.estimateSize(), "The suffix should keep the root and the right subtree");
+		StringBuilder result = new StringBuilder();
+		prefix.forEachRemaining(element -> result.append(element).append(" "));
+		suffix.forEachRemaining(element -> result.append(element).append(" "));
+		assertEquals("1 2 3 4 5 6 7 ", result.toString(), "Split parts should cover the tree in order");
+	}
+
+	@Test
+	void testSerializationRebuildsBalancedTree() throws Exception
+	{
+		for (int i = 1; i <= 10_000; i++)
+			tree.add(i);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(tree);
+		}
+		myBSTree<Integer> copy;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			@SuppressWarnings("unchecked")
+			myBSTree<Integer> read = (myBSTree<Integer>) in.readObject();
+			copy = read;
+		}
+		assertEquals(10_000, copy.size());
+		assertEquals(13, copy.getHeight(), "A read tree should be perfectly balanced");
+		assertFalse(copy.isBalanced(), "A read tree should keep the mode it was written with");
+		assertEquals(tree.stream().collect(Collectors.toList()), copy.stream().collect(Collectors.toList()));
+		assertEquals(1, copy.removeMin().getElement());
+		assertTrue(copy.add(0), "A read tree should accept new elements");
+	}
+
+	@Test
+	void testSetOperations()
+	{
+		// Sorted insertion leaves a plain tree degenerate, which the set operations must cope with
+		for (int i = 0; i < 2000; i++)
+			tree.add(i);
+		myBSTree<Integer> evens = myBSTree.balanced();
+		for (int i = 1000; i < 3000; i += 2)
+			evens.add(i);
+
+		tree.union(evens);
+		assertTrue(evens.isEmpty(), "The other tree should be consumed");
+		assertEquals(2500, tree.size());
+		assertEquals(2998, tree.last());
+		assertTrue(tree.getHeight() <= 15, "A union should leave the tree balanced");
+
+		tree.difference(myBSTree.fromSorted(new Integer[] { -1, 10, 1999, 2000, 2001, 2998 }));
+		assertEquals(2496, tree.size());
+		assertFalse(tree.contains(10));
+		assertTrue(tree.contains(11));
+		assertEquals(0, tree.first());
+		assertEquals(2996, tree.last());
+
+		myBSTree<Integer> kept = myBSTree.fromSorted(new Integer[] { -1, 10, 11, 1998, 2001, 2996 });
+		kept.intersection(tree);
+		assertEquals("11 1998 2996", kept.stream().map(String::valueOf).collect(Collectors.joining(" ")));
+		assertTrue(tree.isEmpty(), "The other tree should be consumed");
+	}
+
+	@Test
+	void testRemoveByKey()
+	{
+		myBSTree<Integer> balanced = myBSTree.balanced();
+		for (int i = 0; i < 1000; i++)
+			balanced.add(i);
+		for (int i = 0; i < 1000; i += 3)
+			assertTrue(balanced.remove(i));
+		assertFalse(balanced.remove(3), "Removing an absent element should return false");
+		assertEquals(666, balanced.size());
+		assertEquals(666, balanced.getRoot().getNumberNodes());
+		assertEquals(1, balanced.first());
+		assertEquals(998, balanced.last());
+		assertEquals(Integer.valueOf(5), balanced.select(3));
+		assertTrue(balanced.getHeight() <= 13, "Removals should keep a balanced tree balanced");
+	}
+
+	@Test
+	void testLazyRemovalSkipsTombstones()
+	{
+		tree.setCompactionRatio(0.5);
+		for (int i = 0; i < 10; i++)
+			tree.add(i);
+		assertTrue(tree.remove(4));
+		assertTrue(tree.remove(6));
+		assertEquals(8, tree.size());
+		assertFalse(tree.contains(4));
+		assertNull(tree.search(6));
+		assertEquals(Integer.valueOf(3), tree.floor(4));
+		assertEquals(Integer.valueOf(7), tree.higher(5));
+		assertEquals(Integer.valueOf(7), tree.select(5));
+		assertEquals("0 1 2 3 5 7 8 9", tree.stream().map(String::valueOf).collect(Collectors.joining(" ")));
+
+		assertTrue(tree.add(4), "Adding a removed element should revive it");
+		assertEquals(9, tree.size());
+
+		// Tombstones next to an extreme go with it
+		tree.remove(8);
+		tree.remove(7);
+		assertEquals(9, tree.removeMax().getElement());
+		assertEquals(5, tree.last());
+
+		for (int i = 1; i <= 4; i++)
+			tree.remove(i);
+		assertEquals("0 5", tree.stream().map(String::valueOf).collect(Collectors.joining(" ")));
+		assertEquals(1, tree.getHeight(), "Passing the ratio should compact the tree");
+	}
+
+	@Test
+	void testUnionWithSkewedPlainTreeIsAvl()
+	{
+		// A chain hung below the smallest leaf of a full tree breaks the AVL rule deep inside, though the
+		// tree is no taller than an AVL tree of its size may be
+		myBSTree<Integer> skewed = new myBSTree<>();
+		addMedianFirst(skewed, 0, 1022);
+		for (int i = 1; i <= 3; i++)
+			skewed.add(i);
+		assertEquals(12, skewed.getHeight());
+		myBSTree<Integer> degenerate = new myBSTree<>();
+		for (int i = 20_000; i < 20_100; i++)
+			degenerate.add(i);
+
+		myBSTree<Integer> balanced = myBSTree.balanced();
+		for (int i = 2005; i < 3000; i += 10)
+			balanced.add(i);
+		balanced.union(skewed);
+		assertAvl(balanced.getRoot());
+		balanced.union(degenerate);
+		assertAvl(balanced.getRoot());
+		assertEquals(1226, balanced.size());
+		assertEquals(20_099, balanced.last());
+	}
+
+	@Test
+	void testUnionOfRandomPlainTreesIsAvl()
+	{
+		Random random = new Random(21);
+		for (int round = 0; round < 50; round++) {
+			myBSTree<Integer> left = (round % 3 == 0) ? myBSTree.balanced() : new myBSTree<>();
+			myBSTree<Integer> right = (round % 3 == 1) ? myBSTree.balanced() : new myBSTree<>();
+			for (myBSTree<Integer> side : List.of(left, right)) {
+				for (int i = random.nextInt(300); i > 0; i--)
+					side.add(random.nextInt(1000));
+				// Draining one end of a plain tree can unbalance the nodes along its spine
+				for (int i = random.nextInt(20); i > 0 && !side.isEmpty(); i--)
+					side.removeMin();
+			}
+			TreeSet<Integer> expected = new TreeSet<>();
+			left.forEachInOrder(expected::add);
+			right.forEachInOrder(expected::add);
+
+			left.union(right);
+			assertAvl(left.getRoot());
+			assertEquals(expected.size(), left.size());
+			assertEquals(expected.stream().collect(Collectors.toList()), left.stream().collect(Collectors.toList()));
+		}
+	}
+
+	/**
+	 * Adds the multiples of ten from 10 low to 10 high, each range's median first, which builds a full
+	 * tree when the range is one short of a power of two.
+	 */
+	private static void addMedianFirst(myBSTree<Integer> target, int low, int high)
+	{
+		if (low > high)
+			return;
+		int middle = (low + high) >>> 1;
+		target.add(middle * 10);
+		addMedianFirst(target, low, middle - 1);
+		addMedianFirst(target, middle + 1, high);
+	}
+
+	/**
+	 * Checks the cached height and the AVL rule at every node of the subtree and returns its height.
+	 */
+	private static int assertAvl(BSTreeNode<Integer> node)
+	{
+		if (node == null)
+			return -1;
+		int left = assertAvl(node.getLeft());
+		int right = assertAvl(node.getRight());
+		assertEquals(Math.max(left, right) + 1, node.getHeight(), "Stale height at " + node.getElement());
+		assertTrue(Math.abs(left - right) <= 1, "The AVL rule fails at " + node.getElement() + ": " + left + " vs " + right);
+		return node.getHeight();
+	}
+
+	@Test
+	void testRangeRemovalAndSplit()
+	{
+		for (int i = 0; i < 1000; i++)
+			tree.add(i);
+
+		assertEquals(100, tree.removeRange(200, 300));
+		assertEquals(900, tree.size());
+		assertFalse(tree.contains(250));
+		assertTrue(tree.contains(300));
+		assertEquals(0, tree.removeRange(250, 260));
+		assertEquals(2, tree.removeRange(199, false, 301, true));
+		assertEquals(898, tree.size());
+
+		myBSTree<Integer> expired = tree.headTree(100);
+		assertEquals(100, expired.size());
+		assertEquals(99, expired.last());
+		assertEquals(100, tree.first());
+		assertTrue(tree.getHeight() <= 14, "Detaching should leave the tree balanced");
+
+		myBSTree<Integer> upper = tree.splitAt(500);
+		assertEquals(500, upper.first());
+		assertEquals(999, upper.last());
+		assertEquals(499, tree.last());
+		assertEquals(898, expired.size() + tree.size() + upper.size());
+
+		myBSTree<Integer> above = upper.tailTree(900, false);
+		assertEquals(901, above.first());
+		assertEquals(900, upper.last());
+		assertEquals(Integer.valueOf(700), upper.select(200));
+	}
+
+	@Test
+	void testRangeOperationsOnSkewedPlainTreeAreAvl()
+	{
+		Random random = new Random(22);
+		for (int round = 0; round < 20; round++) {
+			// Short chains hung below leaves of a full tree break the AVL rule at several nodes, though the
+			// tree is no taller than an AVL tree of its size may be
+			tree = new myBSTree<>();
+			addMedianFirst(tree, 0, 1022);
+			for (int chain = 0; chain < 8; chain++) {
+				int leaf = 20 * random.nextInt(512);
+				for (int i = 1; i <= 3; i++)
+					tree.add(leaf + i);
+			}
+			TreeSet<Integer> expected = new TreeSet<>();
+			tree.forEachInOrder(expected::add);
+			int from = random.nextInt(5000), to = from + random.nextInt(5000);
+			assertEquals(expected.subSet(from, to).size(), tree.removeRange(from, to));
+			expected.subSet(from, to).clear();
+			assertAvl(tree.getRoot());
+
+			int key = random.nextInt(10_230);
+			myBSTree<Integer> head = tree.headTree(key);
+			assertAvl(head.getRoot());
+			assertAvl(tree.getRoot());
+			assertEquals(expected.headSet(key).stream().collect(Collectors.toList()), head.stream().collect(Collectors.toList()));
+
+			tree.union(head);
+			key = random.nextInt(10_230);
+			myBSTree<Integer> tail = tree.tailTree(key, false);
+			assertAvl(tail.getRoot());
+			assertAvl(tree.getRoot());
+			assertEquals(expected.tailSet(key, false).stream().collect(Collectors.toList()), tail.stream().collect(Collectors.toList()));
+
+			tree.union(tail);
+			key = random.nextInt(10_230);
+			myBSTree<Integer> upper = tree.splitAt(key);
+			assertAvl(upper.getRoot());
+			assertAvl(tree.getRoot());
+			assertEquals(expected.headSet(key).stream().collect(Collectors.toList()), tree.stream().collect(Collectors.toList()));
+			assertEquals(expected.tailSet(key).stream().collect(Collectors.toList()), upper.stream().collect(Collectors.toList()));
+		}
+	}
+
+	@Test
+	void testFreeze()
+	{
+		int[] keys = { 50, 30, 70, 20, 40, 60, 80, 35, 45, 65 };
+		for (int key : keys)
+			tree.add(key);
+		FrozenBSTree<Integer> frozen = tree.freeze();
+		tree.add(90);
+		assertEquals(10, frozen.size(), "A frozen copy should not see later insertions");
+		assertEquals(3, frozen.getHeight(), "A frozen copy should be a complete tree");
+		for (int key : keys)
+			assertTrue(frozen.contains(key), "A frozen copy should contain " + key);
+		for (int key : new int[] { 10, 33, 55, 90 })
+			assertFalse(frozen.contains(key), "A frozen copy should not contain " + key);
+		assertEquals(65, frozen.search(65).getElement());
+		StringBuilder inorder = new StringBuilder(), preorder = new StringBuilder(), postorder = new StringBuilder();
+		for (Iterator<Integer> iterator = frozen.inorderIterator(); iterator.hasNext();)
+			inorder.append(iterator.next()).append(" ");
+		for (Iterator<Integer> iterator = frozen.preorderIterator(); iterator.hasNext();)
+			preorder.append(iterator.next()).append(" ");
+		for (Iterator<Integer> iterator = frozen.postorderIterator(); iterator.hasNext();)
+			postorder.append(iterator.next()).append(" ");
+		assertEquals("20 30 35 40 45 50 60 65 70 80 ", inorder.toString());
+		assertEquals("60 40 30 20 35 50 45 70 65 80 ", preorder.toString());
+		assertEquals("20 35 30 45 50 40 65 80 70 60 ", postorder.toString());
+		assertThrows(UnsupportedOperationException.class, () -> frozen.add(1));
+		assertThrows(UnsupportedOperationException.class, () -> frozen.getRoot());
+	}
+
 }
@@ -0,0 +1,564 @@
+package utilities;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The `BTree` class is an ordered set stored as a B-tree: every node holds up to {@code fanout - 1}
+ * keys in a sorted array and, unless it is a leaf, one more child than keys. A lookup binary searches
+ * one small array per level, so a tree of a million keys with the default fanout is four levels deep
+ * instead of twenty, and each key costs one array slot instead of a whole {@link BSTreeNode}.
+ * <p>
+ * Since keys are not stored one per node, {@link #getRoot()} is not supported, and {@link #search}
+ * returns a new, detached node holding the stored key. Preorder visits the keys of a node before the
+ * subtrees below it, postorder after them.
+ * <p>
+ * Serializing the tree writes its fanout, size and keys in ascending order; reading them back packs
+ * the keys into as few nodes as the fanout allows, in linear time.
+ *
+ * @param <E> The type of elements stored in the tree.
+ */
+public class BTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
+	private static final long serialVersionUID = 5029618431741503268L;
+	private static final int DEFAULT_FANOUT = 32;
+
+	private final int fanout;
+	// Every node but the root keeps at least this many keys
+	private final int minKeys;
+	// The nodes are not serialized; writeObject stores the keys in order instead
+	private transient Node root;
+	private int size;
+	// Edges from the root to the leaves, which are all on the same level
+	private transient int height;
+	// Scratch root-to-leaf path of add and the removals, reused between calls
+	private transient Node[] pathNodes = new Node[8];
+	private transient int[] pathIndices = new int[8];
+
+	/**
+	 * Constructs an empty B-tree with the default fanout.
+	 */
+	public BTree() {
+		this(DEFAULT_FANOUT);
+	}
+
+	/**
+	 * Constructs an empty B-tree whose nodes have at most the given number of children.
+	 *
+	 * @param fanout The maximum number of children per node.
+	 * @throws IllegalArgumentException if the fanout is less than 3.
+	 */
+	public BTree(int fanout) throws IllegalArgumentException {
+		if (fanout < 3)
+			throw new IllegalArgumentException("Fanout must be at least 3: " + fanout);
+		this.fanout = fanout;
+		this.minKeys = (fanout + 1) / 2 - 1;
+	}
+
+	/**
+	 * Returns the maximum number of children per node.
+	 *
+	 * @return The fanout of the tree.
+	 */
+	public int getFanout() {
+		return fanout;
+	}
+
+	/**
+	 * Not supported: keys are packed into arrays rather than stored one per node.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public BSTreeNode<E> getRoot() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("A B-tree does not store keys in BSTreeNodes");
+	}
+
+	/**
+	 * Returns the number of levels below the root node.
+	 *
+	 * @return The height of the tree, 0 if it is empty or has a single node.
+	 */
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the number of elements in the tree.
+	 *
+	 * @return The number of elements in the tree.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the tree is empty.
+	 *
+	 * @return true if the tree is empty, false otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Clears the tree, removing all elements.
+	 */
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+		height = 0;
+	}
+
+	/**
+	 * Checks if the tree contains the specified element.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return true if the tree contains the element, false otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean contains(E entry) throws NullPointerException {
+		return find(entry) != null;
+	}
+
+	/**
+	 * Searches for the specified element.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return A new, detached node holding the stored element if found, null otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public BSTreeNode<E> search(E entry) throws NullPointerException {
+		E found = find(entry);
+		return (found == null) ? null : new BSTreeNode<>(found, null, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private E find(E entry) throws NullPointerException {
+		if (entry == null)
+			throw new NullPointerException("Cannot search for a null entry in the tree");
+		Node node = root;
+		while (node != null) {
+			int index = Arrays.binarySearch(node.keys, 0, node.count, entry);
+			if (index >= 0)
+				return (E) node.keys[index];
+			node = node.isLeaf() ? null : node.children[-index - 1];
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the specified element to the tree. A leaf that overflows is split in two around its median
+	 * key, which moves up into the parent; splits can ripple up to the root, which is how the tree grows.
+	 *
+	 * @param newEntry The element to add to the tree.
+	 * @return true if the element is added successfully, false if it already exists in the tree.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean add(E newEntry) throws NullPointerException {
+		if (newEntry == null)
+			throw new NullPointerException("Cannot add null entry to the tree");
+		if (root == null) {
+			root = new Node(fanout, true);
+			root.keys[0] = newEntry;
+			root.count = 1;
+			size = 1;
+			return true;
+		}
+		Node node = root;
+		int depth = 0;
+		while (true) {
+			int index = Arrays.binarySearch(node.keys, 0, node.count, newEntry);
+			if (index >= 0)
+				return false; // Duplicate entry, not added
+			index = -index - 1;
+			pathNodes[depth] = node;
+			pathIndices[depth] = index;
+			if (node.isLeaf())
+				break;
+			node = node.children[index];
+			depth++;
+		}
+
+		Object key = newEntry;
+		Node right = null;
+		for (; depth >= 0; depth--) {
+			node = pathNodes[depth];
+			node.insert(pathIndices[depth], key, right);
+			if (node.count < fanout)
+				break;
+			// Overflow: keep the lower half here, move the upper half to a new sibling
+			int middle = node.count / 2;
+			key = node.keys[middle];
+			right = node.splitAfter(middle);
+		}
+		if (depth < 0) {
+			Node grown = new Node(fanout, false);
+			grown.keys[0] = key;
+			grown.children[0] = root;
+			grown.children[1] = right;
+			grown.count = 1;
+			root = grown;
+			growPath(++height);
+		}
+		Arrays.fill(pathNodes, null);
+		size++;
+		return true;
+	}
+
+	/**
+	 * Removes the smallest element from the tree.
+	 *
+	 * @return A new, detached node holding the removed element, or null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> removeMin() {
+		return removeExtreme(true);
+	}
+
+	/**
+	 * Removes the largest element from the tree.
+	 *
+	 * @return A new, detached node holding the removed element, or null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> removeMax() {
+		return removeExtreme(false);
+	}
+
+	/**
+	 * Removes the first or last key of the outermost leaf, then repairs underfull nodes bottom-up by
+	 * borrowing a key through the parent from a sibling that can spare one, or merging with a sibling
+	 * that cannot.
+	 */
+	@SuppressWarnings("unchecked")
+	private BSTreeNode<E> removeExtreme(boolean smallest) {
+		if (root == null)
+			return null;
+		Node node = root;
+		int depth = 0;
+		while (!node.isLeaf()) {
+			int index = smallest ? 0 : node.count;
+			pathNodes[depth] = node;
+			pathIndices[depth++] = index;
+			node = node.children[index];
+		}
+		E removed = (E) node.keys[smallest ? 0 : node.count - 1];
+		node.removeKey(smallest ? 0 : node.count - 1);
+		size--;
+
+		while (node.count < minKeys && depth > 0) {
+			Node parent = pathNodes[--depth];
+			fixUnderflow(parent, pathIndices[depth]);
+			node = parent;
+		}
+		if (root.count == 0) {
+			root = root.isLeaf() ? null : root.children[0];
+			if (root != null)
+				height--;
+		}
+		Arrays.fill(pathNodes, null);
+		return new BSTreeNode<>(removed, null, null);
+	}
+
+	private void fixUnderflow(Node parent, int index) {
+		Node child = parent.children[index];
+		Node left = (index > 0) ? parent.children[index - 1] : null;
+		Node right = (index < parent.count) ? parent.children[index + 1] : null;
+		if (left != null && left.count > minKeys) {
+			// Rotate right: the separator comes down, the left sibling's last key goes up
+			child.insert(0, parent.keys[index - 1], null);
+			if (!child.isLeaf()) {
+				System.arraycopy(child.children, 0, child.children, 1, child.count);
+				child.children[0] = left.children[left.count];
+				left.children[left.count] = null;
+			}
+			parent.keys[index - 1] = left.keys[left.count - 1];
+			left.keys[--left.count] = null;
+		} else if (right != null && right.count > minKeys) {
+			// Rotate left: the separator comes down, the right sibling's first key goes up
+			child.keys[child.count] = parent.keys[index];
+			if (!child.isLeaf())
+				child.children[child.count + 1] = right.children[0];
+			child.count++;
+			parent.keys[index] = right.keys[0];
+			if (!right.isLeaf()) {
+				System.arraycopy(right.children, 1, right.children, 0, right.count);
+				right.children[right.count] = null;
+			}
+			right.removeKey(0);
+		} else {
+			parent.merge(left != null ? index - 1 : index);
+		}
+	}
+
+	private void growPath(int height) {
+		if (height >= pathNodes.length) {
+			pathNodes = Arrays.copyOf(pathNodes, pathNodes.length * 2);
+			pathIndices = Arrays.copyOf(pathIndices, pathIndices.length * 2);
+		}
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in inorder.
+	 *
+	 * @return An iterator for inorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> inorderIterator() {
+		return new NodeIterator(0);
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in preorder: each node's keys, then its subtrees.
+	 *
+	 * @return An iterator for preorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> preorderIterator() {
+		return new NodeIterator(1);
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in postorder: each node's subtrees, then its keys.
+	 *
+	 * @return An iterator for postorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> postorderIterator() {
+		return new NodeIterator(2);
+	}
+
+	/**
+	 * Writes the fanout and size of the tree followed by its keys in ascending order.
+	 *
+	 * @param out The stream to write to.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		Iterator<E> elements = inorderIterator();
+		while (elements.hasNext())
+			out.writeObject(elements.next());
+	}
+
+	/**
+	 * Reads the keys written by {@link #writeObject} and bulk-loads them into the shallowest tree that
+	 * can hold them.
+	 *
+	 * @param in The stream to read from.
+	 * @throws IOException            if an I/O error occurs.
+	 * @throws ClassNotFoundException if the class of an element cannot be found.
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		if (fanout < 3 || minKeys != (fanout + 1) / 2 - 1)
+			throw new InvalidObjectException("Invalid fanout: " + fanout);
+		if (size < 0)
+			throw new InvalidObjectException("Negative tree size: " + size);
+		Object[] keys = new Object[size];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = in.readObject();
+			if (keys[i] == null || (i > 0 && ((E) keys[i - 1]).compareTo((E) keys[i]) >= 0))
+				throw new InvalidObjectException("Keys are not strictly ascending at index " + i);
+		}
+		height = 0;
+		while (capacity(height) < size)
+			height++;
+		pathNodes = new Node[Math.max(8, height + 1)];
+		pathIndices = new int[pathNodes.length];
+		root = (size == 0) ? null : build(keys, 0, size, height);
+	}
+
+	/**
+	 * Returns the most keys a subtree of the given height can hold, fanout^(height + 1) - 1.
+	 */
+	private long capacity(int height) {
+		long keys = fanout - 1;
+		for (int i = 0; i < height && keys < Integer.MAX_VALUE; i++)
+			keys = keys * fanout + fanout - 1;
+		return keys;
+	}
+
+	/**
+	 * Links count ascending keys, starting at from, into a subtree of the given height. The keys are
+	 * spread as evenly as possible over the fewest children that can hold them, which leaves every
+	 * child at least half full.
+	 */
+	private Node build(Object[] keys, int from, int count, int height) {
+		Node node = new Node(fanout, height == 0);
+		if (height == 0) {
+			System.arraycopy(keys, from, node.keys, 0, count);
+			node.count = count;
+			return node;
+		}
+		long perChild = capacity(height - 1) + 1;
+		int children = (int) ((count + perChild) / perChild);
+		// One key separates each pair of neighbouring children; the rest go to the children
+		int spread = count - (children - 1);
+		int next = from;
+		for (int i = 0; i < children; i++) {
+			int share = spread / children + ((i < spread % children) ? 1 : 0);
+			node.children[i] = build(keys, next, share, height - 1);
+			next += share;
+			if (i < children - 1)
+				node.keys[i] = keys[next++];
+		}
+		node.count = children - 1;
+		return node;
+	}
+
+	/**
+	 * One B-tree node. The arrays have one spare slot so that a node can overflow by one key before it
+	 * is split.
+	 */
+	private static class Node {
+		final Object[] keys;
+		final Node[] children;
+		int count;
+
+		Node(int fanout, boolean leaf) {
+			keys = new Object[fanout];
+			children = leaf ? null : new Node[fanout + 1];
+		}
+
+		boolean isLeaf() {
+			return children == null;
+		}
+
+		/**
+		 * Inserts the key at the index and, in an internal node, the child just right of it.
+		 */
+		void insert(int index, Object key, Node rightChild) {
+			System.arraycopy(keys, index, keys, index + 1, count - index);
+			keys[index] = key;
+			if (children != null && rightChild != null) {
+				System.arraycopy(children, index + 1, children, index + 2, count - index);
+				children[index + 1] = rightChild;
+			}
+			count++;
+		}
+
+		/**
+		 * Removes the key at the index; in an internal node the caller moves the children.
+		 */
+		void removeKey(int index) {
+			System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+			keys[--count] = null;
+		}
+
+		/**
+		 * Moves the keys and children after the middle key into a new node and drops the middle key.
+		 */
+		Node splitAfter(int middle) {
+			Node right = new Node(keys.length, children == null);
+			right.count = count - middle - 1;
+			System.arraycopy(keys, middle + 1, right.keys, 0, right.count);
+			Arrays.fill(keys, middle, count, null);
+			if (children != null) {
+				System.arraycopy(children, middle + 1, right.children, 0, right.count + 1);
+				Arrays.fill(children, middle + 1, count + 1, null);
+			}
+			count = middle;
+			return right;
+		}
+
+		/**
+		 * Merges child index + 1 and the separator between them into child index.
+		 */
+		void merge(int index) {
+			Node left = children[index], right = children[index + 1];
+			left.keys[left.count] = keys[index];
+			System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+			if (left.children != null)
+				System.arraycopy(right.children, 0, left.children, left.count + 1, right.count + 1);
+			left.count += right.count + 1;
+			System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+			System.arraycopy(children, index + 2, children, index + 1, count - index - 1);
+			keys[count - 1] = null;
+			children[count] = null;
+			count--;
+		}
+	}
+
+	/**
+	 * Walks the tree with a stack of (node, step) frames. A node with n keys takes 2n + 1 steps, each
+	 * either visiting one of its keys or descending into one of its children; the order decides which.
+	 */
+	private class NodeIterator implements Iterator<E> {
+		private final int order;
+		private final Node[] nodes;
+		private final int[] steps;
+		private int depth;
+		private Object next;
+
+		public NodeIterator(int order) {
+			this.order = order;
+			this.nodes = new Node[height + 1];
+			this.steps = new int[height + 1];
+			if (root != null)
+				push(root);
+			advance();
+		}
+
+		private void push(Node node) {
+			nodes[depth] = node;
+			steps[depth++] = 0;
+		}
+
+		/**
+		 * Runs steps until one visits a key, leaving it in {@code next}, or the stack runs empty.
+		 */
+		private void advance() {
+			next = null;
+			while (depth > 0) {
+				Node node = nodes[depth - 1];
+				int step = steps[depth - 1];
+				if (step > 2 * node.count) {
+					nodes[--depth] = null;
+					continue;
+				}
+				steps[depth - 1]++;
+				int key;
+				if (order == 0)
+					key = ((step & 1) == 1) ? step >> 1 : -1 - (step >> 1);
+				else if (order == 1)
+					key = (step < node.count) ? step : -1 - (step - node.count);
+				else
+					key = (step > node.count) ? step - node.count - 1 : -1 - step;
+				if (key >= 0) {
+					next = node.keys[key];
+					return;
+				}
+				if (!node.isLeaf())
+					push(node.children[-1 - key]);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() throws NoSuchElementException {
+			if (!hasNext())
+				throw new NoSuchElementException("No more elements in the iterator.");
+			E element = (E) next;
+			advance();
+			return element;
+		}
+	}
+}
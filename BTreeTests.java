@@ -0,0 +1,163 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class BTreeTests {
+
+	@Test
+	void testSplitBorrowMergeMinimumDegree3()
+	{
+		checkAgainstTreeSet(6);
+	}
+
+	@Test
+	void testSplitBorrowMergeMinimumDegree4()
+	{
+		checkAgainstTreeSet(8);
+	}
+
+	/**
+	 * Grows a tree of a few hundred keys, which splits leaves and internal nodes, then shrinks it from
+	 * both ends with adds mixed in, which borrows from and merges siblings at every level.
+	 */
+	private static void checkAgainstTreeSet(int fanout)
+	{
+		BTree<Integer> tree = new BTree<>(fanout);
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(fanout);
+		for (int i = 0; i < 600; i++) {
+			int key = random.nextInt(1000);
+			assertEquals(expected.add(key), tree.add(key));
+			assertHeightWithinBounds(tree, expected.size());
+		}
+		assertEquals(expected.toString(), elements(tree.inorderIterator()));
+		assertTrue(tree.getHeight() >= 2, "A few hundred keys should need internal nodes below the root");
+
+		for (int i = 0; !expected.isEmpty(); i++) {
+			int op = random.nextInt(10);
+			if (op < 4)
+				assertEquals(expected.pollFirst(), tree.removeMin().getElement());
+			else if (op < 8)
+				assertEquals(expected.pollLast(), tree.removeMax().getElement());
+			else {
+				int key = random.nextInt(1000);
+				assertEquals(expected.add(key), tree.add(key));
+			}
+			assertEquals(expected.size(), tree.size());
+			assertHeightWithinBounds(tree, expected.size());
+			if (i % 25 == 0) {
+				assertEquals(expected.toString(), elements(tree.inorderIterator()));
+				for (Integer key : expected)
+					assertTrue(tree.contains(key));
+			}
+		}
+		assertNull(tree.removeMin());
+		assertEquals(0, tree.getHeight());
+	}
+
+	/**
+	 * A node has at most fanout children and every node but the root at least half as many, so a tree
+	 * of n keys is at least log_fanout(n + 1) and at most log_t((n + 1) / 2) levels tall, counting edges
+	 * and t = ceil(fanout / 2).
+	 */
+	private static void assertHeightWithinBounds(BTree<Integer> tree, int n)
+	{
+		if (n == 0)
+			return;
+		int t = (tree.getFanout() + 1) / 2;
+		double lowest = Math.log(n + 1) / Math.log(tree.getFanout()) - 1;
+		double highest = Math.log((n + 1) / 2.0) / Math.log(t);
+		assertTrue(tree.getHeight() >= Math.ceil(lowest - 1e-9) && tree.getHeight() <= highest + 1e-9,
+				"Height " + tree.getHeight() + " is outside the B-tree bounds for " + n + " keys");
+	}
+
+	@Test
+	void testTraversalOrders()
+	{
+		BTree<Integer> tree = new BTree<>(6);
+		for (int i = 1; i <= 6; i++)
+			tree.add(i);
+		// The sixth key overflows the leaf, whose middle key 4 moves up into a new root
+		assertEquals(1, tree.getHeight());
+		assertEquals("[1, 2, 3, 4, 5, 6]", elements(tree.inorderIterator()));
+		assertEquals("[4, 1, 2, 3, 5, 6]", elements(tree.preorderIterator()));
+		assertEquals("[1, 2, 3, 5, 6, 4]", elements(tree.postorderIterator()));
+		assertEquals(4, tree.search(4).getElement());
+		assertNull(tree.search(7));
+	}
+
+	@Test
+	void testSerializationRoundTrip() throws Exception
+	{
+		for (int fanout : new int[] { 3, 6, 7, 32 }) {
+			for (int n : new int[] { 0, 1, 2, fanout - 1, fanout, 100, 1234 }) {
+				BTree<Integer> tree = new BTree<>(fanout);
+				TreeSet<Integer> expected = new TreeSet<>();
+				Random random = new Random(n);
+				while (expected.size() < n) {
+					int key = random.nextInt(10_000);
+					expected.add(key);
+					tree.add(key);
+				}
+				BTree<Integer> copy = roundTrip(tree);
+				assertEquals(fanout, copy.getFanout());
+				assertEquals(n, copy.size());
+				assertEquals(expected.toString(), elements(copy.inorderIterator()));
+				assertHeightWithinBounds(copy, n);
+
+				// The loaded nodes should take the usual splits, borrows and merges
+				for (int i = 0; i < 2 * n + 10; i++) {
+					int key = random.nextInt(10_000);
+					if (random.nextBoolean())
+						assertEquals(expected.add(key), copy.add(key));
+					else
+						assertEquals(expected.pollFirst(), elementOf(copy.removeMin()));
+					assertHeightWithinBounds(copy, expected.size());
+				}
+				assertEquals(expected.toString(), elements(copy.inorderIterator()));
+			}
+		}
+	}
+
+	@Test
+	void testInvalidArguments()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new BTree<Integer>(2));
+		BTree<Integer> tree = new BTree<>();
+		assertThrows(NullPointerException.class, () -> tree.add(null));
+		assertThrows(UnsupportedOperationException.class, () -> tree.getRoot());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BTree<Integer> roundTrip(BTree<Integer> source) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(source);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (BTree<Integer>) in.readObject();
+		}
+	}
+
+	private static Integer elementOf(BSTreeNode<Integer> node) {
+		return (node == null) ? null : node.getElement();
+	}
+
+	private static String elements(Iterator<Integer> iterator) {
+		List<Integer> elements = new ArrayList<>();
+		while (iterator.hasNext())
+			elements.add(iterator.next());
+		return elements.toString();
+	}
+}
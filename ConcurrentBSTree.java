@@ -0,0 +1,303 @@
+package utilities;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The `ConcurrentBSTree` class is a thread-safe binary search tree. It wraps a balanced {@link myBSTree}
+ * and guards it with a {@link StampedLock}: {@code search} and {@code contains} walk the tree under an
+ * optimistic stamp without taking any lock, and retry the walk while writers invalidate it. Only a
+ * reader that keeps losing to writers falls back to a shared read lock, so that a stream of writes
+ * cannot starve it. Writers are serialized by the exclusive lock, and each write is a single O(log n)
+ * AVL update, so an optimistic walk rarely has to wait for one.
+ * <p>
+ * Writers do not lock finer than the whole tree: the AVL rotations on the way back up can reach any
+ * ancestor of the changed node, up to the root. {@link ShardedBSTree} spreads writers over separately
+ * locked key ranges instead.
+ * <p>
+ * Nodes returned by {@link #getRoot()}, {@link #search(Comparable)}, {@link #removeMin()} and
+ * {@link #removeMax()} are live tree nodes and must not be modified. The iterators work on a copy of
+ * the tree taken when they are created.
+ *
+ * @param <E> The type of elements stored in the tree.
+ */
+public class ConcurrentBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
+	private static final long serialVersionUID = -6204197436802231547L;
+	// An AVL tree of 2^31 nodes is under 46 levels deep; a longer optimistic walk saw a torn update
+	private static final int MAX_OPTIMISTIC_STEPS = 64;
+	// Optimistic walks, and spins waiting out a writer, a reader tries before it queues for the read lock
+	private static final int OPTIMISTIC_ATTEMPTS = 256;
+
+	private final myBSTree<E> tree;
+	private final StampedLock lock;
+
+	/**
+	 * Constructs an empty concurrent binary search tree.
+	 */
+	public ConcurrentBSTree() {
+		this.tree = myBSTree.balanced();
+		this.lock = new StampedLock();
+	}
+
+	/**
+	 * Returns the root node of the tree. The node is live and must not be modified.
+	 *
+	 * @return The root node of the tree, null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> getRoot() {
+		long stamp = lock.readLock();
+		try {
+			return tree.rootNode();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns the height of the tree.
+	 *
+	 * @return The height of the tree.
+	 */
+	@Override
+	public int getHeight() {
+		long stamp = lock.tryOptimisticRead();
+		int height = heightOf(tree.rootNode());
+		if (lock.validate(stamp))
+			return height;
+		stamp = lock.readLock();
+		try {
+			return heightOf(tree.rootNode());
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	private static int heightOf(BSTreeNode<?> root) {
+		return (root == null) ? 0 : root.getHeight();
+	}
+
+	/**
+	 * Returns the number of elements in the tree.
+	 *
+	 * @return The number of elements in the tree.
+	 */
+	@Override
+	public int size() {
+		long stamp = lock.tryOptimisticRead();
+		int size = tree.size();
+		if (lock.validate(stamp))
+			return size;
+		stamp = lock.readLock();
+		try {
+			return tree.size();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Checks if the tree is empty.
+	 *
+	 * @return true if the tree is empty, false otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Clears the tree, removing all elements.
+	 */
+	@Override
+	public void clear() {
+		long stamp = lock.writeLock();
+		try {
+			tree.clear();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Checks if the tree contains the specified element, without blocking unless a writer interferes.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return true if the tree contains the element, false otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean contains(E entry) throws NullPointerException {
+		return search(entry) != null;
+	}
+
+	/**
+	 * Searches for the specified element. The walk runs under an optimistic stamp and is repeated,
+	 * spinning while a writer holds the lock, if a write happened meanwhile; only after several failed
+	 * walks is it repeated under the read lock.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return The live node containing the specified element if found, null otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public BSTreeNode<E> search(E entry) throws NullPointerException {
+		if (entry == null)
+			throw new NullPointerException("Cannot search for a null entry in the tree");
+		for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+			long stamp = lock.tryOptimisticRead();
+			if (stamp == 0L) {
+				// A writer holds the lock; its update is short, so wait for it without parking
+				Thread.onSpinWait();
+				continue;
+			}
+			try {
+				BSTreeNode<E> found = walk(entry);
+				if (lock.validate(stamp))
+					return found;
+			} catch (RuntimeException tornRead) {
+				// A concurrent write left the walk inconsistent; try again
+			}
+		}
+		long stamp = lock.readLock();
+		try {
+			return walk(entry);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Walks the tree from its root, writing nothing, so that any number of readers can walk at once.
+	 * Under an optimistic stamp the result is only meaningful if the stamp still validates afterwards,
+	 * and a walk that runs suspiciously long is abandoned.
+	 */
+	private BSTreeNode<E> walk(E entry) {
+		BSTreeNode<E> current = tree.rootNode();
+		for (int steps = 0; current != null; steps++) {
+			if (steps > MAX_OPTIMISTIC_STEPS)
+				throw new IllegalStateException("Optimistic walk exceeded the tree height");
+			int compare = entry.compareTo(current.getElement());
+			if (compare == 0)
+				return current;
+			current = (compare < 0) ? current.getLeft() : current.getRight();
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the specified element to the tree.
+	 *
+	 * @param newEntry The element to add to the tree.
+	 * @return true if the element is added successfully, false if it already exists in the tree.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean add(E newEntry) throws NullPointerException {
+		if (newEntry == null)
+			throw new NullPointerException("Cannot add null entry to the tree");
+		long stamp = lock.writeLock();
+		try {
+			return tree.add(newEntry);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Removes and returns the node with the smallest element.
+	 *
+	 * @return The node with the smallest element if found, null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> removeMin() {
+		long stamp = lock.writeLock();
+		try {
+			return tree.removeMin();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Removes and returns the node with the largest element.
+	 *
+	 * @return The node with the largest element if found, null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> removeMax() {
+		long stamp = lock.writeLock();
+		try {
+			return tree.removeMax();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Returns an iterator over a copy of the elements in inorder, taken under the read lock.
+	 *
+	 * @return An iterator for inorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> inorderIterator() {
+		return snapshot(0);
+	}
+
+	/**
+	 * Returns an iterator over a copy of the elements in preorder, taken under the read lock.
+	 *
+	 * @return An iterator for preorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> preorderIterator() {
+		return snapshot(1);
+	}
+
+	/**
+	 * Returns an iterator over a copy of the elements in postorder, taken under the read lock.
+	 *
+	 * @return An iterator for postorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> postorderIterator() {
+		return snapshot(2);
+	}
+
+	private Iterator<E> snapshot(int order) {
+		long stamp = lock.readLock();
+		try {
+			Object[] elements = new Object[tree.size()];
+			Iterator<E> source = (order == 0) ? tree.inorderIterator()
+					: (order == 1) ? tree.preorderIterator() : tree.postorderIterator();
+			for (int i = 0; source.hasNext(); i++)
+				elements[i] = source.next();
+			return new SnapshotIterator(elements);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	private class SnapshotIterator implements Iterator<E> {
+		private final Object[] elements;
+		private int index;
+
+		public SnapshotIterator(Object[] elements) {
+			this.elements = elements;
+			this.index = 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index < elements.length;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() throws NoSuchElementException {
+			if (!hasNext())
+				throw new NoSuchElementException("No more elements in the iterator.");
+			return (E) elements[index++];
+		}
+	}
+}
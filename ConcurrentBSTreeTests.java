@@ -0,0 +1,159 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentBSTreeTests {
+
+	private ConcurrentBSTree<Integer> tree;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		tree = new ConcurrentBSTree<>();
+	}
+
+	@Test
+	void testMatchesTreeSetSingleThreaded()
+	{
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(11);
+		for (int i = 0; i < 20_000; i++) {
+			int key = random.nextInt(5000);
+			int op = random.nextInt(10);
+			if (op < 6)
+				assertEquals(expected.add(key), tree.add(key));
+			else if (op < 8)
+				assertEquals(expected.contains(key), tree.contains(key));
+			else if (op == 8)
+				assertEquals(expected.pollFirst(), elementOf(tree.removeMin()));
+			else
+				assertEquals(expected.pollLast(), elementOf(tree.removeMax()));
+			assertEquals(expected.size(), tree.size());
+		}
+		assertEquals(expected.toString(), inorder(tree.inorderIterator()));
+		assertTrue(tree.getHeight() <= 1.45 * Math.log(expected.size() + 2) / Math.log(2), "The tree should stay balanced");
+		tree.clear();
+		assertTrue(tree.isEmpty());
+		assertNull(tree.removeMin());
+		assertThrows(NullPointerException.class, () -> tree.add(null));
+		assertThrows(NullPointerException.class, () -> tree.contains(null));
+	}
+
+	@Test
+	void testRootAndHeight()
+	{
+		assertNull(tree.getRoot());
+		assertEquals(0, tree.getHeight());
+		for (int i = 1; i <= 7; i++)
+			tree.add(i);
+		assertEquals(4, tree.getRoot().getElement(), "Sorted input should be rebalanced around the middle");
+		assertEquals(2, tree.getHeight());
+		tree.removeMin();
+		tree.removeMin();
+		assertEquals(tree.getRoot().getHeight(), tree.getHeight());
+		assertNull(tree.search(1));
+		assertEquals(3, tree.search(3).getElement());
+	}
+
+	@Test
+	void testIteratorsWorkOnSnapshot()
+	{
+		for (int key : new int[] { 4, 2, 6, 1, 3, 5, 7 })
+			tree.add(key);
+		Iterator<Integer> inorder = tree.inorderIterator();
+		Iterator<Integer> preorder = tree.preorderIterator();
+		Iterator<Integer> postorder = tree.postorderIterator();
+		tree.add(8);
+		tree.removeMin();
+		assertEquals("[1, 2, 3, 4, 5, 6, 7]", inorder(inorder), "An iterator should not see later writes");
+		assertEquals("[4, 2, 1, 3, 6, 5, 7]", inorder(preorder));
+		assertEquals("[1, 3, 2, 5, 7, 6, 4]", inorder(postorder));
+	}
+
+	@Test
+	void testConcurrentReadersAndWriters() throws Exception
+	{
+		int writers = 4, readers = 4, addsPerWriter = 20_000;
+		ConcurrentSkipListSet<Integer> expected = new ConcurrentSkipListSet<>();
+		// Pinned keys sit above every written key, so no removeMin ever reaches them
+		int pinnedBase = writers * addsPerWriter;
+		for (int i = 0; i < 100; i++) {
+			tree.add(pinnedBase + i);
+			expected.add(pinnedBase + i);
+		}
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int w = 0; w < writers; w++) {
+			int offset = w;
+			threads.add(new Thread(() -> {
+				await(start);
+				for (int i = 0; i < addsPerWriter; i++) {
+					// Each writer owns the keys congruent to its offset, and records a key before adding it
+					int key = i * writers + offset;
+					expected.add(key);
+					tree.add(key);
+					if (i % 4 == 3) {
+						BSTreeNode<Integer> removed = tree.removeMin();
+						expected.remove(removed.getElement());
+					}
+				}
+			}));
+		}
+		for (int r = 0; r < readers; r++) {
+			int seed = r;
+			threads.add(new Thread(() -> {
+				await(start);
+				Random random = new Random(seed);
+				for (int i = 0; i < 200_000; i++) {
+					int pinned = pinnedBase + random.nextInt(100);
+					if (!tree.contains(pinned))
+						throw new AssertionError("A reader missed pinned key " + pinned);
+					if (tree.contains(-1 - random.nextInt(100)))
+						throw new AssertionError("A reader found a key that was never added");
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.setUncaughtExceptionHandler((t, e) -> failure.compareAndSet(null, e));
+			thread.start();
+		}
+		start.countDown();
+		for (Thread thread : threads)
+			thread.join();
+		assertNull(failure.get(), "No thread should fail");
+		assertEquals(expected.size(), tree.size());
+		assertEquals(expected.toString(), inorder(tree.inorderIterator()));
+		for (Integer key : expected)
+			assertTrue(tree.contains(key));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static Integer elementOf(BSTreeNode<Integer> node) {
+		return (node == null) ? null : node.getElement();
+	}
+
+	private static String inorder(Iterator<Integer> iterator) {
+		List<Integer> elements = new ArrayList<>();
+		while (iterator.hasNext())
+			elements.add(iterator.next());
+		return elements.toString();
+	}
+}
@@ -0,0 +1,129 @@
+package utilities;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The `FixedWidthCodec` interface converts keys to and from a fixed number of bytes, so that trees can
+ * keep them outside the Java heap or in files. Codecs use absolute buffer positions and never move a
+ * buffer's position or limit.
+ *
+ * @param <E> The type of keys the codec handles.
+ */
+public interface FixedWidthCodec<E extends Comparable<? super E>> {
+	/**
+	 * A codec for {@code Long} keys, 8 bytes each.
+	 */
+	FixedWidthCodec<Long> LONG = new FixedWidthCodec<Long>() {
+		@Override
+		public int width() {
+			return Long.BYTES;
+		}
+
+		@Override
+		public void write(ByteBuffer buffer, int offset, Long key) {
+			buffer.putLong(offset, key);
+		}
+
+		@Override
+		public Long read(ByteBuffer buffer, int offset) {
+			return buffer.getLong(offset);
+		}
+
+		@Override
+		public int compare(Long key, ByteBuffer buffer, int offset) {
+			return Long.compare(key, buffer.getLong(offset));
+		}
+	};
+
+	/**
+	 * A codec for {@code Integer} keys, 4 bytes each.
+	 */
+	FixedWidthCodec<Integer> INTEGER = new FixedWidthCodec<Integer>() {
+		@Override
+		public int width() {
+			return Integer.BYTES;
+		}
+
+		@Override
+		public void write(ByteBuffer buffer, int offset, Integer key) {
+			buffer.putInt(offset, key);
+		}
+
+		@Override
+		public Integer read(ByteBuffer buffer, int offset) {
+			return buffer.getInt(offset);
+		}
+
+		@Override
+		public int compare(Integer key, ByteBuffer buffer, int offset) {
+			return Integer.compare(key, buffer.getInt(offset));
+		}
+	};
+
+	/**
+	 * A codec for {@code java.util.UUID} keys, 16 bytes each, ordered as {@code UUID.compareTo} orders
+	 * them.
+	 */
+	FixedWidthCodec<java.util.UUID> UUID = new FixedWidthCodec<java.util.UUID>() {
+		@Override
+		public int width() {
+			return 2 * Long.BYTES;
+		}
+
+		@Override
+		public void write(ByteBuffer buffer, int offset, java.util.UUID key) {
+			buffer.putLong(offset, key.getMostSignificantBits());
+			buffer.putLong(offset + Long.BYTES, key.getLeastSignificantBits());
+		}
+
+		@Override
+		public java.util.UUID read(ByteBuffer buffer, int offset) {
+			return new java.util.UUID(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES));
+		}
+
+		@Override
+		public int compare(java.util.UUID key, ByteBuffer buffer, int offset) {
+			int compare = Long.compare(key.getMostSignificantBits(), buffer.getLong(offset));
+			return (compare != 0) ? compare : Long.compare(key.getLeastSignificantBits(), buffer.getLong(offset + Long.BYTES));
+		}
+	};
+
+	/**
+	 * Returns the number of bytes every encoded key takes.
+	 *
+	 * @return The width of an encoded key in bytes.
+	 */
+	int width();
+
+	/**
+	 * Encodes a key into the buffer.
+	 *
+	 * @param buffer The buffer to write to.
+	 * @param offset The absolute position of the first byte to write.
+	 * @param key    The key to encode.
+	 */
+	void write(ByteBuffer buffer, int offset, E key);
+
+	/**
+	 * Decodes a key from the buffer.
+	 *
+	 * @param buffer The buffer to read from.
+	 * @param offset The absolute position of the first byte to read.
+	 * @return The decoded key.
+	 */
+	E read(ByteBuffer buffer, int offset);
+
+	/**
+	 * Compares a key with an encoded key, consistently with the key's {@code compareTo}. The default
+	 * decodes the stored key; codecs should override it to compare without creating an object.
+	 *
+	 * @param key    The key to compare.
+	 * @param buffer The buffer holding the encoded key.
+	 * @param offset The absolute position of the encoded key.
+	 * @return A negative number, zero or a positive number as the key is less than, equal to or
+	 *         greater than the encoded key.
+	 */
+	default int compare(E key, ByteBuffer buffer, int offset) {
+		return key.compareTo(read(buffer, offset));
+	}
+}
@@ -0,0 +1,254 @@
+package utilities;
+
+import java.util.NoSuchElementException;
+
+/**
+ * The `FrozenBSTree` class is a read-only binary search tree stored in a single array in Eytzinger
+ * (breadth-first) order: the root sits in slot 1 and the children of slot {@code k} in slots
+ * {@code 2k} and {@code 2k + 1}. There are no node objects to chase, the top levels of the tree share
+ * a handful of cache lines, and the next slots a search can visit are adjacent in memory. Searches
+ * descend without branching on the comparison result.
+ * <p>
+ * Instances are created by {@link myBSTree#freeze()}. Every operation that would modify the tree
+ * throws {@link UnsupportedOperationException}, and so does {@link #getRoot()}, since the tree has no
+ * nodes to hand out.
+ *
+ * @param <E> The type of elements stored in the tree.
+ */
+public class FrozenBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
+	private static final long serialVersionUID = -3117489022736512940L;
+
+	// Slot 0 is unused so that the children of slot k are 2k and 2k + 1
+	private final Object[] slots;
+	private final int size;
+
+	/**
+	 * Lays out the first count elements of a strictly ascending array in Eytzinger order.
+	 *
+	 * @param sorted The elements in strictly ascending order; not retained.
+	 * @param count  The number of slots in use.
+	 */
+	FrozenBSTree(Object[] sorted, int count) {
+		this.slots = new Object[count + 1];
+		this.size = count;
+		// An in-order walk of the implicit tree visits its slots in ascending key order
+		int k = leftmost(1);
+		for (int i = 0; i < count; i++) {
+			slots[k] = sorted[i];
+			k = successor(k);
+		}
+	}
+
+	/**
+	 * Not supported: a frozen tree has no nodes.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public BSTreeNode<E> getRoot() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("A frozen tree has no nodes");
+	}
+
+	/**
+	 * Returns the height of the tree. The layout is a complete tree, so this is the floor of the binary
+	 * logarithm of the size.
+	 *
+	 * @return The height of the tree.
+	 */
+	@Override
+	public int getHeight() {
+		return (size == 0) ? 0 : 31 - Integer.numberOfLeadingZeros(size);
+	}
+
+	/**
+	 * Returns the number of elements in the tree.
+	 *
+	 * @return The number of elements in the tree.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the tree is empty.
+	 *
+	 * @return true if the tree is empty, false otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Not supported: a frozen tree cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public void clear() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Cannot modify a frozen tree");
+	}
+
+	/**
+	 * Checks if the tree contains the specified element.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return true if the tree contains the element, false otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean contains(E entry) throws NullPointerException {
+		return slotOf(entry) != 0;
+	}
+
+	/**
+	 * Searches for the specified element.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return A new, detached node holding the stored element if found, null otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public BSTreeNode<E> search(E entry) throws NullPointerException {
+		int k = slotOf(entry);
+		return (k == 0) ? null : new BSTreeNode<>((E) slots[k], null, null);
+	}
+
+	/**
+	 * Returns the slot holding the element, or 0 if it is absent. The loop always runs to the bottom of
+	 * the tree and turns each comparison into the next index arithmetically: it walks to the slot of
+	 * the smallest element not below the entry, recording a right turn in the low bit at every level,
+	 * and the trailing right turns are then undone with a single shift.
+	 */
+	@SuppressWarnings("unchecked")
+	private int slotOf(E entry) throws NullPointerException {
+		if (entry == null)
+			throw new NullPointerException("Cannot search for a null entry in the tree");
+		int k = 1;
+		while (k <= size)
+			k = (k << 1) | (((E) slots[k]).compareTo(entry) >>> 31);
+		k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+		return (k != 0 && ((E) slots[k]).compareTo(entry) == 0) ? k : 0;
+	}
+
+	/**
+	 * Not supported: a frozen tree cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public boolean add(E newEntry) throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Cannot modify a frozen tree");
+	}
+
+	/**
+	 * Not supported: a frozen tree cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public BSTreeNode<E> removeMin() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Cannot modify a frozen tree");
+	}
+
+	/**
+	 * Not supported: a frozen tree cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public BSTreeNode<E> removeMax() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Cannot modify a frozen tree");
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in inorder.
+	 *
+	 * @return An iterator for inorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> inorderIterator() {
+		return new SlotIterator(0);
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in preorder.
+	 *
+	 * @return An iterator for preorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> preorderIterator() {
+		return new SlotIterator(1);
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in postorder.
+	 *
+	 * @return An iterator for postorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> postorderIterator() {
+		return new SlotIterator(2);
+	}
+
+	private int leftmost(int k) {
+		while ((k << 1) <= size)
+			k <<= 1;
+		return k;
+	}
+
+	private int successor(int k) {
+		if ((k << 1 | 1) <= size)
+			return leftmost(k << 1 | 1);
+		// Climb while coming up from a right child; the parent of the last left child is next
+		while ((k & 1) == 1)
+			k >>>= 1;
+		return k >>> 1;
+	}
+
+	private int preorderSuccessor(int k) {
+		if ((k << 1) <= size)
+			return k << 1;
+		while (k > 0 && ((k & 1) == 1 || k + 1 > size))
+			k >>>= 1;
+		return (k == 0) ? 0 : k + 1;
+	}
+
+	private int postorderSuccessor(int k) {
+		if (k == 1)
+			return 0;
+		if ((k & 1) == 0 && k + 1 <= size)
+			return leftmost(k + 1);
+		return k >>> 1;
+	}
+
+	/**
+	 * Walks the implicit tree by slot index alone, so no stack is needed for any order.
+	 */
+	private class SlotIterator implements Iterator<E> {
+		private final int order;
+		private int slot;
+
+		public SlotIterator(int order) {
+			this.order = order;
+			this.slot = (size == 0) ? 0 : (order == 1) ? 1 : leftmost(1);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return slot != 0;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() throws NoSuchElementException {
+			if (!hasNext())
+				throw new NoSuchElementException("No more elements in the iterator.");
+			E element = (E) slots[slot];
+			slot = (order == 0) ? successor(slot) : (order == 1) ? preorderSuccessor(slot) : postorderSuccessor(slot);
+			return element;
+		}
+	}
+}
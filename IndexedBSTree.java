@@ -0,0 +1,418 @@
+package utilities;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The `IndexedBSTree` class holds the AVL logic shared by the trees that keep their nodes in numbered
+ * slots instead of {@link BSTreeNode} objects. Children are slot indices, and each subclass decides
+ * where the fields of a slot are stored.
+ * <p>
+ * Slots freed by {@link #removeMin()} and {@link #removeMax()} are chained into a free list, linked
+ * through their left field, and reused by later insertions. {@link #clear()} resets the indices in
+ * constant time and keeps the storage.
+ *
+ * @param <E> The type of elements stored in the tree.
+ */
+abstract class IndexedBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
+	private static final long serialVersionUID = 5314921116978710586L;
+	static final int NIL = -1;
+	// For each traversal order, the part of a node (0 = left subtree, 1 = node, 2 = right subtree) each
+	// of its three steps visits
+	private static final int[][] ORDERS = { { 0, 1, 2 }, { 1, 0, 2 }, { 0, 2, 1 } };
+
+	private int root = NIL;
+	private int size;
+	// Slots below this index have been handed out at least once since the last clear
+	int used;
+	// Head of the chain of freed slots, linked through their left field
+	int free = NIL;
+	// Scratch root-to-leaf path of add and the removals, reused between calls
+	private int[] path = new int[16];
+
+	abstract int left(int node);
+
+	abstract int right(int node);
+
+	/**
+	 * Returns the number of edges on the longest path from the node down to a leaf; a leaf is 0.
+	 */
+	abstract int height(int node);
+
+	abstract void setLeft(int node, int child);
+
+	abstract void setRight(int node, int child);
+
+	abstract void setHeight(int node, int height);
+
+	abstract E elementAt(int node);
+
+	/**
+	 * Compares an element with the one stored in a node, as {@code entry.compareTo(elementAt(node))}.
+	 */
+	abstract int compare(E entry, int node);
+
+	/**
+	 * Makes sure the storage has room for the slot, which is the next one never handed out.
+	 */
+	abstract void reserve(int node);
+
+	/**
+	 * Stores the element in a newly allocated slot.
+	 */
+	abstract void store(int node, E element);
+
+	/**
+	 * Called when a slot is freed, after its element has been read for the last time.
+	 */
+	void release(int node) {
+	}
+
+	/**
+	 * Called before every operation that reads the storage.
+	 *
+	 * @throws IllegalStateException if the storage can no longer be read.
+	 */
+	void checkOpen() throws IllegalStateException {
+	}
+
+	/**
+	 * Returns the height of the tree.
+	 *
+	 * @return The height of the tree, 0 if it is empty.
+	 */
+	@Override
+	public int getHeight() {
+		checkOpen();
+		return (root == NIL) ? 0 : height(root);
+	}
+
+	/**
+	 * Returns the number of elements in the tree.
+	 *
+	 * @return The number of elements in the tree.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the tree is empty.
+	 *
+	 * @return true if the tree is empty, false otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Clears the tree in constant time, keeping its storage for reuse.
+	 */
+	@Override
+	public void clear() {
+		checkOpen();
+		root = NIL;
+		size = 0;
+		used = 0;
+		free = NIL;
+	}
+
+	/**
+	 * Checks if the tree contains the specified element.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return true if the tree contains the element, false otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean contains(E entry) throws NullPointerException {
+		return find(entry) != NIL;
+	}
+
+	/**
+	 * Searches for the specified element.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return A new, detached node holding the stored element if found, null otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public BSTreeNode<E> search(E entry) throws NullPointerException {
+		int node = find(entry);
+		return (node == NIL) ? null : new BSTreeNode<>(elementAt(node), null, null);
+	}
+
+	private int find(E entry) throws NullPointerException {
+		if (entry == null)
+			throw new NullPointerException("Cannot search for a null entry in the tree");
+		checkOpen();
+		int current = root;
+		while (current != NIL) {
+			int compare = compare(entry, current);
+			if (compare == 0)
+				return current;
+			current = (compare < 0) ? left(current) : right(current);
+		}
+		return NIL;
+	}
+
+	/**
+	 * Adds the specified element to the tree, in a freed slot if there is one.
+	 *
+	 * @param newEntry The element to add to the tree.
+	 * @return true if the element is added successfully, false if it already exists in the tree.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean add(E newEntry) throws NullPointerException {
+		if (newEntry == null)
+			throw new NullPointerException("Cannot add null entry to the tree");
+		checkOpen();
+		int depth = 0;
+		int current = root;
+		boolean toLeft = false;
+		while (current != NIL) {
+			int compare = compare(newEntry, current);
+			if (compare == 0)
+				return false; // Duplicate entry, not added
+			push(depth++, current);
+			toLeft = compare < 0;
+			current = toLeft ? left(current) : right(current);
+		}
+		int node = allocate(newEntry);
+		if (depth == 0)
+			root = node;
+		else if (toLeft)
+			setLeft(path[depth - 1], node);
+		else
+			setRight(path[depth - 1], node);
+		rebalancePath(depth);
+		size++;
+		return true;
+	}
+
+	/**
+	 * Removes the smallest element and frees its slot.
+	 *
+	 * @return A new, detached node holding the removed element, or null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> removeMin() {
+		return removeExtreme(true);
+	}
+
+	/**
+	 * Removes the largest element and frees its slot.
+	 *
+	 * @return A new, detached node holding the removed element, or null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> removeMax() {
+		return removeExtreme(false);
+	}
+
+	private BSTreeNode<E> removeExtreme(boolean smallest) {
+		checkOpen();
+		if (root == NIL)
+			return null;
+		int depth = 0;
+		int current = root;
+		while ((smallest ? left(current) : right(current)) != NIL) {
+			push(depth++, current);
+			current = smallest ? left(current) : right(current);
+		}
+		// The extreme has at most one child, on the inner side
+		int child = smallest ? right(current) : left(current);
+		if (depth == 0)
+			root = child;
+		else if (smallest)
+			setLeft(path[depth - 1], child);
+		else
+			setRight(path[depth - 1], child);
+		rebalancePath(depth);
+		size--;
+		E removed = elementAt(current);
+		release(current);
+		setLeft(current, free);
+		free = current;
+		return new BSTreeNode<>(removed, null, null);
+	}
+
+	private int allocate(E element) {
+		int node;
+		if (free != NIL) {
+			node = free;
+			free = left(node);
+		} else {
+			if (used == Integer.MAX_VALUE)
+				throw new IllegalStateException("The tree is full");
+			reserve(used);
+			node = used++;
+		}
+		store(node, element);
+		setLeft(node, NIL);
+		setRight(node, NIL);
+		setHeight(node, 0);
+		return node;
+	}
+
+	private void push(int depth, int node) {
+		if (depth == path.length)
+			path = Arrays.copyOf(path, depth * 2);
+		path[depth] = node;
+	}
+
+	/**
+	 * Refreshes the heights of the first depth nodes of the path bottom-up, rotating where a node is out
+	 * of balance.
+	 */
+	private void rebalancePath(int depth) {
+		for (int i = depth - 1; i >= 0; i--) {
+			int node = path[i];
+			int balanced = rebalance(node);
+			if (balanced == node)
+				continue;
+			if (i == 0)
+				root = balanced;
+			else if (left(path[i - 1]) == node)
+				setLeft(path[i - 1], balanced);
+			else
+				setRight(path[i - 1], balanced);
+		}
+	}
+
+	private int rebalance(int node) {
+		update(node);
+		int balance = heightOf(left(node)) - heightOf(right(node));
+		if (balance > 1) {
+			if (heightOf(left(left(node))) < heightOf(right(left(node))))
+				setLeft(node, rotateLeft(left(node)));
+			return rotateRight(node);
+		}
+		if (balance < -1) {
+			if (heightOf(right(right(node))) < heightOf(left(right(node))))
+				setRight(node, rotateRight(right(node)));
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	private void update(int node) {
+		setHeight(node, Math.max(heightOf(left(node)), heightOf(right(node))) + 1);
+	}
+
+	private int heightOf(int node) {
+		return (node == NIL) ? -1 : height(node);
+	}
+
+	private int rotateRight(int node) {
+		int pivot = left(node);
+		setLeft(node, right(pivot));
+		update(node);
+		setRight(pivot, node);
+		update(pivot);
+		return pivot;
+	}
+
+	private int rotateLeft(int node) {
+		int pivot = right(node);
+		setRight(node, left(pivot));
+		update(node);
+		setLeft(pivot, node);
+		update(pivot);
+		return pivot;
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in inorder.
+	 *
+	 * @return An iterator for inorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> inorderIterator() {
+		return new IndexIterator(0);
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in preorder.
+	 *
+	 * @return An iterator for preorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> preorderIterator() {
+		return new IndexIterator(1);
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in postorder.
+	 *
+	 * @return An iterator for postorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> postorderIterator() {
+		return new IndexIterator(2);
+	}
+
+	/**
+	 * Walks the tree with a stack of (node, step) frames. Each node takes three steps, visiting its left
+	 * subtree, itself and its right subtree in the order the traversal asks for.
+	 */
+	private class IndexIterator implements Iterator<E> {
+		private final int[] order;
+		private final int[] nodes;
+		private final int[] steps;
+		private int depth;
+		private int next = NIL;
+
+		public IndexIterator(int order) {
+			this.order = ORDERS[order];
+			this.nodes = new int[getHeight() + 1];
+			this.steps = new int[getHeight() + 1];
+			if (root != NIL)
+				push(root);
+			advance();
+		}
+
+		private void push(int node) {
+			nodes[depth] = node;
+			steps[depth++] = 0;
+		}
+
+		private void advance() {
+			next = NIL;
+			while (depth > 0) {
+				int node = nodes[depth - 1];
+				int step = steps[depth - 1]++;
+				if (step == 3) {
+					depth--;
+					continue;
+				}
+				int action = order[step];
+				if (action == 1) {
+					next = node;
+					return;
+				}
+				int child = (action == 0) ? left(node) : right(node);
+				if (child != NIL)
+					push(child);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != NIL;
+		}
+
+		@Override
+		public E next() throws NoSuchElementException {
+			if (!hasNext())
+				throw new NoSuchElementException("No more elements in the iterator.");
+			checkOpen();
+			E element = elementAt(next);
+			advance();
+			return element;
+		}
+	}
+}
@@ -0,0 +1,289 @@
+package utilities;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The `IntBSTree` class is a self-balancing (AVL) binary search tree of {@code int} keys. Keys are
+ * stored and compared as primitives, so adding, searching and iterating never box a key or call
+ * {@code compareTo}; the only allocation an insertion makes is its node.
+ * <p>
+ * {@link LongBSTree} is the same tree over {@code long} keys. Generics cannot range over primitive types, so
+ * the two are kept as copies; a fix to one belongs in the other.
+ *
+ * @see LongBSTree
+ */
+public class IntBSTree {
+	private Node root;
+	private int size;
+	// Scratch root-to-leaf path of add and the removals, reused between calls
+	private Node[] path = new Node[16];
+
+	/**
+	 * Constructs an empty tree.
+	 */
+	public IntBSTree() {
+		this.root = null;
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the height of the tree.
+	 *
+	 * @return The height of the tree, 0 if it is empty.
+	 */
+	public int getHeight() {
+		return (root == null) ? 0 : root.height;
+	}
+
+	/**
+	 * Returns the number of keys in the tree.
+	 *
+	 * @return The number of keys in the tree.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the tree is empty.
+	 *
+	 * @return true if the tree is empty, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Clears the tree, removing all keys.
+	 */
+	public void clear() {
+		root = null;
+		size = 0;
+	}
+
+	/**
+	 * Checks if the tree contains the specified key.
+	 *
+	 * @param key The key to search for.
+	 * @return true if the tree contains the key, false otherwise.
+	 */
+	public boolean contains(int key) {
+		Node current = root;
+		while (current != null) {
+			if (key == current.key)
+				return true;
+			current = (key < current.key) ? current.left : current.right;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the specified key to the tree.
+	 *
+	 * @param key The key to add.
+	 * @return true if the key is added successfully, false if it already exists in the tree.
+	 */
+	public boolean add(int key) {
+		int depth = 0;
+		Node current = root;
+		while (current != null) {
+			if (key == current.key) {
+				Arrays.fill(path, 0, depth, null);
+				return false; // Duplicate entry, not added
+			}
+			push(depth++, current);
+			current = (key < current.key) ? current.left : current.right;
+		}
+		Node node = new Node(key);
+		if (depth == 0)
+			root = node;
+		else if (key < path[depth - 1].key)
+			path[depth - 1].left = node;
+		else
+			path[depth - 1].right = node;
+		rebalancePath(depth);
+		size++;
+		return true;
+	}
+
+	/**
+	 * Removes and returns the smallest key.
+	 *
+	 * @return The smallest key in the tree.
+	 * @throws NoSuchElementException if the tree is empty.
+	 */
+	public int removeMin() throws NoSuchElementException {
+		return removeExtreme(true);
+	}
+
+	/**
+	 * Removes and returns the largest key.
+	 *
+	 * @return The largest key in the tree.
+	 * @throws NoSuchElementException if the tree is empty.
+	 */
+	public int removeMax() throws NoSuchElementException {
+		return removeExtreme(false);
+	}
+
+	private int removeExtreme(boolean smallest) throws NoSuchElementException {
+		if (root == null)
+			throw new NoSuchElementException("Cannot remove from an empty tree");
+		int depth = 0;
+		Node current = root;
+		while ((smallest ? current.left : current.right) != null) {
+			push(depth++, current);
+			current = smallest ? current.left : current.right;
+		}
+		// The extreme has at most one child, on the inner side
+		Node child = smallest ? current.right : current.left;
+		if (depth == 0)
+			root = child;
+		else if (smallest)
+			path[depth - 1].left = child;
+		else
+			path[depth - 1].right = child;
+		rebalancePath(depth);
+		size--;
+		return current.key;
+	}
+
+	/**
+	 * Returns an iterator over the keys in ascending order.
+	 *
+	 * @return An iterator for inorder traversal of the tree.
+	 */
+	public IntIterator inorderIterator() {
+		return new InorderIterator();
+	}
+
+	private void push(int depth, Node node) {
+		if (depth == path.length)
+			path = Arrays.copyOf(path, depth * 2);
+		path[depth] = node;
+	}
+
+	/**
+	 * Refreshes the heights of the first depth nodes of the path bottom-up, rotating where a node is out
+	 * of balance, and clears the path.
+	 */
+	private void rebalancePath(int depth) {
+		for (int i = depth - 1; i >= 0; i--) {
+			Node node = rebalance(path[i]);
+			path[i] = null;
+			if (i == 0)
+				root = node;
+			else if (node.key < path[i - 1].key)
+				path[i - 1].left = node;
+			else
+				path[i - 1].right = node;
+		}
+	}
+
+	private static Node rebalance(Node node) {
+		node.update();
+		int balance = heightOf(node.left) - heightOf(node.right);
+		if (balance > 1) {
+			if (heightOf(node.left.left) < heightOf(node.left.right))
+				node.left = rotateLeft(node.left);
+			return rotateRight(node);
+		}
+		if (balance < -1) {
+			if (heightOf(node.right.right) < heightOf(node.right.left))
+				node.right = rotateRight(node.right);
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	private static int heightOf(Node node) {
+		return (node == null) ? -1 : node.height;
+	}
+
+	private static Node rotateRight(Node node) {
+		Node pivot = node.left;
+		node.left = pivot.right;
+		node.update();
+		pivot.right = node;
+		pivot.update();
+		return pivot;
+	}
+
+	private static Node rotateLeft(Node node) {
+		Node pivot = node.right;
+		node.right = pivot.left;
+		node.update();
+		pivot.left = node;
+		pivot.update();
+		return pivot;
+	}
+
+	/**
+	 * An iterator over {@code int} keys that returns them without boxing.
+	 */
+	public interface IntIterator {
+		/**
+		 * Returns true if the iteration has more keys.
+		 *
+		 * @return true if the iteration has more keys, false otherwise.
+		 */
+		boolean hasNext();
+
+		/**
+		 * Returns the next key in the iteration.
+		 *
+		 * @return The next key in the iteration.
+		 * @throws NoSuchElementException if the iteration has no more keys.
+		 */
+		int next() throws NoSuchElementException;
+	}
+
+	private static class Node {
+		final int key;
+		Node left, right;
+		// Edges on the longest path down to a leaf; a leaf is 0
+		int height;
+
+		Node(int key) {
+			this.key = key;
+		}
+
+		void update() {
+			height = Math.max(heightOf(left), heightOf(right)) + 1;
+		}
+	}
+
+	private class InorderIterator implements IntIterator {
+		// A root-to-leaf path holds at most height + 1 nodes, so the stack never grows
+		private final Node[] stack;
+		private int depth;
+
+		public InorderIterator() {
+			stack = new Node[getHeight() + 1];
+			pushLeft(root);
+		}
+
+		private void pushLeft(Node node) {
+			while (node != null) {
+				stack[depth++] = node;
+				node = node.left;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return depth > 0;
+		}
+
+		@Override
+		public int next() throws NoSuchElementException {
+			if (!hasNext())
+				throw new NoSuchElementException("No more elements in the iterator.");
+			Node node = stack[--depth];
+			stack[depth] = null;
+			pushLeft(node.right);
+			return node.key;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IntBSTreeTests {
+
+	private IntBSTree tree;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		tree = new IntBSTree();
+	}
+
+	@Test
+	void testMatchesTreeSet()
+	{
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(5);
+		for (int i = 0; i < 50_000; i++) {
+			int key = (i % 100 == 0) ? extremeKey(random) : random.nextInt(4000) - 2000;
+			int op = random.nextInt(10);
+			if (op < 5)
+				assertEquals(expected.add(key), tree.add(key));
+			else if (op < 8)
+				assertEquals(expected.contains(key), tree.contains(key));
+			else if (expected.isEmpty())
+				assertThrows(NoSuchElementException.class, () -> tree.removeMin());
+			else if (op == 8)
+				assertEquals((int) expected.pollFirst(), tree.removeMin());
+			else
+				assertEquals((int) expected.pollLast(), tree.removeMax());
+			assertEquals(expected.size(), tree.size());
+		}
+		assertTrue(tree.getHeight() <= 1.45 * Math.log(expected.size() + 2) / Math.log(2), "The tree should stay balanced");
+		IntBSTree.IntIterator iterator = tree.inorderIterator();
+		for (int key : expected)
+			assertEquals(key, iterator.next());
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, () -> iterator.next());
+	}
+
+	private static int extremeKey(Random random) {
+		// Keys whose difference overflows an int, which a subtraction-based comparison would misorder
+		return random.nextBoolean() ? Integer.MIN_VALUE + random.nextInt(3) : Integer.MAX_VALUE - random.nextInt(3);
+	}
+
+	@Test
+	void testSortedInsertStaysBalanced()
+	{
+		for (int i = 0; i < 1023; i++)
+			tree.add(i);
+		assertEquals(9, tree.getHeight(), "Sorted keys should still build a perfect tree");
+		assertEquals(0, tree.removeMin());
+		assertEquals(1022, tree.removeMax());
+		assertEquals(1021, tree.size());
+	}
+
+	@Test
+	void testEmptyTree()
+	{
+		assertTrue(tree.isEmpty());
+		assertEquals(0, tree.getHeight());
+		assertFalse(tree.contains(0));
+		assertThrows(NoSuchElementException.class, () -> tree.removeMin());
+		assertThrows(NoSuchElementException.class, () -> tree.removeMax());
+		assertFalse(tree.inorderIterator().hasNext());
+		tree.add(1);
+		tree.clear();
+		assertTrue(tree.isEmpty());
+		assertFalse(tree.contains(1));
+	}
+}
@@ -0,0 +1,370 @@
+package utilities;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * The `MappedBSTree` class is a read-only binary search tree backed by a memory-mapped file. The file
+ * holds a short header followed by the keys in ascending order, each encoded in the fixed width of a
+ * {@link FixedWidthCodec}; the tree is the perfectly balanced one that {@link myBSTree#fromSorted}
+ * would build over them. Opening a file maps it and reads only the header, so startup time does not
+ * depend on the number of keys: searches binary search the mapped pages and iterators decode keys as
+ * they go, and the operating system pages in only what they touch.
+ * <p>
+ * Every operation that would modify the tree throws {@link UnsupportedOperationException}, and so does
+ * {@link #getRoot()}, since the tree has no nodes; {@link #search} returns a new, detached node holding
+ * the decoded key.
+ * <p>
+ * The tree cannot be serialized, since a mapping cannot be written to a stream; pass the file around
+ * instead and {@link #open} it again.
+ *
+ * @param <E> The type of elements stored in the tree.
+ */
+public class MappedBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
+	private static final long serialVersionUID = 1350879916268441062L;
+	private static final int MAGIC = 0x42535446;
+	private static final int HEADER_BYTES = 16;
+	// Keys are mapped in regions of at most this many bytes, since a mapped buffer is limited to 2 GB
+	private static final int REGION_BYTES = 1 << 30;
+
+	private final FixedWidthCodec<E> codec;
+	private final int width;
+	private final int size;
+	private final int keysPerRegion;
+	private final ByteBuffer[] regions;
+
+	private MappedBSTree(FixedWidthCodec<E> codec, int size, ByteBuffer[] regions, int keysPerRegion) {
+		this.codec = codec;
+		this.width = codec.width();
+		this.size = size;
+		this.regions = regions;
+		this.keysPerRegion = keysPerRegion;
+	}
+
+	/**
+	 * Writes the elements of a tree to a file, in ascending order, in the format {@link #open} reads.
+	 * An existing file is replaced.
+	 *
+	 * @param <E>   The type of elements stored in the tree.
+	 * @param tree  The tree to write.
+	 * @param codec The codec that encodes the elements.
+	 * @param file  The file to write.
+	 * @throws NullPointerException if any argument is null.
+	 * @throws IOException          if the file cannot be written.
+	 */
+	public static <E extends Comparable<? super E>> void write(BSTreeADT<E> tree, FixedWidthCodec<E> codec, Path file) throws NullPointerException, IOException {
+		if (tree == null || codec == null || file == null)
+			throw new NullPointerException("Tree, codec and file cannot be null");
+		int width = codec.width();
+		ByteBuffer buffer = ByteBuffer.allocate(Math.max(HEADER_BYTES, (1 << 16) / width * width));
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			buffer.putInt(MAGIC).putInt(width).putLong(tree.size()).flip();
+			writeFully(channel, buffer);
+			Iterator<E> elements = tree.inorderIterator();
+			while (elements.hasNext()) {
+				if (buffer.remaining() < width)
+					writeFully(channel, buffer.flip());
+				codec.write(buffer, buffer.position(), elements.next());
+				buffer.position(buffer.position() + width);
+			}
+			writeFully(channel, buffer.flip());
+		}
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Maps a file written by {@link #write} as a read-only tree. Only the header is read.
+	 *
+	 * @param <E>   The type of elements stored in the tree.
+	 * @param file  The file to map.
+	 * @param codec The codec that decodes the elements; it must have the width they were written with.
+	 * @return A read-only tree over the mapped file.
+	 * @throws NullPointerException if either argument is null.
+	 * @throws IOException          if the file cannot be read or was not written for this codec.
+	 */
+	public static <E extends Comparable<? super E>> MappedBSTree<E> open(Path file, FixedWidthCodec<E> codec) throws NullPointerException, IOException {
+		if (file == null || codec == null)
+			throw new NullPointerException("File and codec cannot be null");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(HEADER_BYTES, channel.size()));
+			if (header.remaining() < HEADER_BYTES || header.getInt(0) != MAGIC)
+				throw new IOException("Not a tree file: " + file);
+			int width = header.getInt(4);
+			long count = header.getLong(8);
+			if (width != codec.width())
+				throw new IOException("Keys are " + width + " bytes wide, the codec expects " + codec.width());
+			if (count < 0 || count > Integer.MAX_VALUE || channel.size() != HEADER_BYTES + count * width)
+				throw new IOException("Truncated or corrupt tree file: " + file);
+
+			int keysPerRegion = REGION_BYTES / width;
+			ByteBuffer[] regions = new ByteBuffer[(int) ((count + keysPerRegion - 1) / keysPerRegion)];
+			for (int i = 0; i < regions.length; i++) {
+				long first = (long) i * keysPerRegion;
+				long keys = Math.min(keysPerRegion, count - first);
+				regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * width, keys * width);
+			}
+			// The mappings stay valid after the channel is closed
+			return new MappedBSTree<>(codec, (int) count, regions, keysPerRegion);
+		}
+	}
+
+	/**
+	 * Not supported: a mapped tree has no nodes.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public BSTreeNode<E> getRoot() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("A mapped tree has no nodes");
+	}
+
+	/**
+	 * Refuses to serialize the tree, whose keys are in a mapped file.
+	 *
+	 * @param out The stream to write to.
+	 * @throws NotSerializableException always.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		throw new NotSerializableException("A mapped tree cannot be serialized; open its file again instead");
+	}
+
+	/**
+	 * Returns the height of the tree, which is perfectly balanced.
+	 *
+	 * @return The height of the tree.
+	 */
+	@Override
+	public int getHeight() {
+		return (size == 0) ? 0 : 31 - Integer.numberOfLeadingZeros(size);
+	}
+
+	/**
+	 * Returns the number of elements in the tree.
+	 *
+	 * @return The number of elements in the tree.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the tree is empty.
+	 *
+	 * @return true if the tree is empty, false otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Not supported: a mapped tree cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public void clear() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Cannot modify a mapped tree");
+	}
+
+	/**
+	 * Checks if the tree contains the specified element.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return true if the tree contains the element, false otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean contains(E entry) throws NullPointerException {
+		return indexOf(entry) >= 0;
+	}
+
+	/**
+	 * Searches for the specified element.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return A new, detached node holding the decoded element if found, null otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public BSTreeNode<E> search(E entry) throws NullPointerException {
+		int index = indexOf(entry);
+		return (index < 0) ? null : new BSTreeNode<>(keyAt(index), null, null);
+	}
+
+	/**
+	 * Walks down the implicit balanced tree, which is a binary search over the sorted keys.
+	 */
+	private int indexOf(E entry) throws NullPointerException {
+		if (entry == null)
+			throw new NullPointerException("Cannot search for a null entry in the tree");
+		int low = 0, high = size - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int compare = codec.compare(entry, regions[middle / keysPerRegion], (middle % keysPerRegion) * width);
+			if (compare == 0)
+				return middle;
+			if (compare < 0)
+				high = middle - 1;
+			else
+				low = middle + 1;
+		}
+		return -1;
+	}
+
+	private E keyAt(int index) {
+		return codec.read(regions[index / keysPerRegion], (index % keysPerRegion) * width);
+	}
+
+	/**
+	 * Not supported: a mapped tree cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public boolean add(E newEntry) throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Cannot modify a mapped tree");
+	}
+
+	/**
+	 * Not supported: a mapped tree cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public BSTreeNode<E> removeMin() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Cannot modify a mapped tree");
+	}
+
+	/**
+	 * Not supported: a mapped tree cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public BSTreeNode<E> removeMax() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Cannot modify a mapped tree");
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in inorder, which reads the file sequentially.
+	 *
+	 * @return An iterator for inorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> inorderIterator() {
+		return new Iterator<E>() {
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public E next() throws NoSuchElementException {
+				if (!hasNext())
+					throw new NoSuchElementException("No more elements in the iterator.");
+				return keyAt(index++);
+			}
+		};
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in preorder.
+	 *
+	 * @return An iterator for preorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> preorderIterator() {
+		return new RangeIterator(true);
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in postorder.
+	 *
+	 * @return An iterator for postorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> postorderIterator() {
+		return new RangeIterator(false);
+	}
+
+	/**
+	 * Walks the implicit tree with a stack of index ranges: the root of the range low..high is its
+	 * middle index. Each range takes three steps, visiting its root before or after its two halves.
+	 */
+	private class RangeIterator implements Iterator<E> {
+		private final boolean preorder;
+		private final int[] lows;
+		private final int[] highs;
+		private final int[] steps;
+		private int depth;
+		private int next = -1;
+
+		public RangeIterator(boolean preorder) {
+			this.preorder = preorder;
+			this.lows = new int[getHeight() + 1];
+			this.highs = new int[getHeight() + 1];
+			this.steps = new int[getHeight() + 1];
+			push(0, size - 1);
+			advance();
+		}
+
+		private void push(int low, int high) {
+			if (low > high)
+				return;
+			lows[depth] = low;
+			highs[depth] = high;
+			steps[depth++] = 0;
+		}
+
+		private void advance() {
+			next = -1;
+			while (depth > 0) {
+				int low = lows[depth - 1], high = highs[depth - 1];
+				int middle = (low + high) >>> 1;
+				int step = steps[depth - 1]++;
+				if (step == 3) {
+					depth--;
+					continue;
+				}
+				if (step == (preorder ? 0 : 2)) {
+					next = middle;
+					return;
+				}
+				if (step == (preorder ? 1 : 0))
+					push(low, middle - 1);
+				else
+					push(middle + 1, high);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next >= 0;
+		}
+
+		@Override
+		public E next() throws NoSuchElementException {
+			if (!hasNext())
+				throw new NoSuchElementException("No more elements in the iterator.");
+			E element = keyAt(next);
+			advance();
+			return element;
+		}
+	}
+}
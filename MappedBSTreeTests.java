@@ -0,0 +1,96 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MappedBSTreeTests {
+
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		file = Files.createTempFile("tree", ".bst");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	void testRoundTripMatchesFromSorted() throws IOException
+	{
+		for (int n : new int[] { 0, 1, 2, 3, 7, 8, 100, 1001 }) {
+			// Odd keys only, so that the even ones probe the gaps between them
+			Integer[] keys = new Integer[n];
+			for (int i = 0; i < n; i++)
+				keys[i] = 2 * i + 1;
+			myBSTree<Integer> expected = myBSTree.fromSorted(keys);
+			MappedBSTree.write(expected, FixedWidthCodec.INTEGER, file);
+			MappedBSTree<Integer> mapped = MappedBSTree.open(file, FixedWidthCodec.INTEGER);
+
+			assertEquals(n, mapped.size());
+			assertEquals(expected.getHeight(), mapped.getHeight(), "Height for " + n + " keys");
+			assertEquals(elements(expected.inorderIterator()), elements(mapped.inorderIterator()), "Inorder for " + n + " keys");
+			assertEquals(elements(expected.preorderIterator()), elements(mapped.preorderIterator()), "Preorder for " + n + " keys");
+			assertEquals(elements(expected.postorderIterator()), elements(mapped.postorderIterator()), "Postorder for " + n + " keys");
+			for (int key = -1; key <= 2 * n + 1; key++)
+				assertEquals(expected.contains(key), mapped.contains(key), "contains(" + key + ") for " + n + " keys");
+			if (n > 0)
+				assertEquals(keys[n - 1], mapped.search(keys[n - 1]).getElement());
+		}
+	}
+
+	@Test
+	void testOpenRejectsOtherFiles() throws IOException
+	{
+		Files.write(file, new byte[] { 1, 2, 3 });
+		assertThrows(IOException.class, () -> MappedBSTree.open(file, FixedWidthCodec.INTEGER));
+
+		MappedBSTree.write(myBSTree.fromSorted(new Integer[] { 1, 2 }), FixedWidthCodec.INTEGER, file);
+		assertThrows(IOException.class, () -> MappedBSTree.open(file, FixedWidthCodec.LONG), "The codec width should match the file");
+	}
+
+	@Test
+	void testReadOnly() throws IOException
+	{
+		MappedBSTree.write(myBSTree.fromSorted(new Integer[] { 1 }), FixedWidthCodec.INTEGER, file);
+		MappedBSTree<Integer> mapped = MappedBSTree.open(file, FixedWidthCodec.INTEGER);
+		assertThrows(UnsupportedOperationException.class, () -> mapped.add(2));
+		assertThrows(UnsupportedOperationException.class, () -> mapped.removeMin());
+		assertThrows(UnsupportedOperationException.class, () -> mapped.removeMax());
+		assertThrows(UnsupportedOperationException.class, () -> mapped.clear());
+		assertThrows(UnsupportedOperationException.class, () -> mapped.getRoot());
+		assertThrows(NullPointerException.class, () -> mapped.contains(null));
+	}
+
+	@Test
+	void testSerializationFailsClearly() throws Exception
+	{
+		MappedBSTree.write(myBSTree.fromSorted(new Integer[] { 1 }), FixedWidthCodec.INTEGER, file);
+		MappedBSTree<Integer> mapped = MappedBSTree.open(file, FixedWidthCodec.INTEGER);
+		try (ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream())) {
+			NotSerializableException failure = assertThrows(NotSerializableException.class, () -> out.writeObject(mapped));
+			assertTrue(failure.getMessage().contains("mapped"), "The exception should say why the tree cannot be written");
+		}
+	}
+
+	private static String elements(Iterator<Integer> iterator) {
+		List<Integer> elements = new ArrayList<>();
+		while (iterator.hasNext())
+			elements.add(iterator.next());
+		return elements.toString();
+	}
+}
@@ -0,0 +1,151 @@
+package utilities;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The `OffHeapBSTree` class is a self-balancing (AVL) binary search tree whose nodes live outside the
+ * Java heap, in direct buffers, so that the garbage collector neither copies nor traces them however
+ * many keys the tree holds. Keys are stored encoded by a {@link FixedWidthCodec}; each node is a
+ * fixed-size record of its child indices, its height and its encoded key.
+ * <p>
+ * The arena grows one chunk at a time, so it can exceed the 2 GB limit of a single buffer, and slots
+ * freed by {@link #removeMin()} and {@link #removeMax()} are reused. {@link #close()} releases the
+ * arena; afterwards every operation but {@link #size()} and {@link #isEmpty()} throws
+ * IllegalStateException. Since there are no node objects, {@link #getRoot()} is not supported, and
+ * {@link #search} and the removals return new, detached nodes holding decoded keys.
+ * <p>
+ * The tree cannot be serialized: neither the arena nor the codec can be written to a stream.
+ *
+ * @param <E> The type of elements stored in the tree.
+ */
+public class OffHeapBSTree<E extends Comparable<? super E>> extends IndexedBSTree<E> implements AutoCloseable {
+	private static final long serialVersionUID = -5584317709912730651L;
+	// Byte offsets of the fields of a node record
+	private static final int LEFT = 0, RIGHT = 4, HEIGHT = 8, KEY = 12;
+	private static final int CHUNK_SHIFT = 16;
+	private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+	private final FixedWidthCodec<E> codec;
+	private final int nodeSize;
+	private ByteBuffer[] chunks;
+	private int chunkCount;
+
+	/**
+	 * Constructs an empty off-heap tree for keys encoded by the codec.
+	 *
+	 * @param codec The codec that encodes and compares keys.
+	 * @throws NullPointerException if the codec is null.
+	 */
+	public OffHeapBSTree(FixedWidthCodec<E> codec) throws NullPointerException {
+		if (codec == null)
+			throw new NullPointerException("Codec cannot be null");
+		this.codec = codec;
+		this.nodeSize = KEY + codec.width();
+		this.chunks = new ByteBuffer[4];
+	}
+
+	/**
+	 * Releases the off-heap arena. The memory is returned once the buffers are collected; the tree
+	 * cannot be used afterwards. Closing a closed tree has no effect.
+	 */
+	@Override
+	public void close() {
+		if (chunks == null)
+			return;
+		clear();
+		chunks = null;
+		chunkCount = 0;
+	}
+
+	/**
+	 * Not supported: the tree has no node objects.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public BSTreeNode<E> getRoot() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("An off-heap tree has no nodes");
+	}
+
+	/**
+	 * Refuses to serialize the tree, whose nodes are outside the heap.
+	 *
+	 * @param out The stream to write to.
+	 * @throws NotSerializableException always.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		throw new NotSerializableException("An off-heap tree cannot be serialized; copy its elements into another tree");
+	}
+
+	@Override
+	void checkOpen() throws IllegalStateException {
+		if (chunks == null)
+			throw new IllegalStateException("The tree has been closed");
+	}
+
+	@Override
+	void reserve(int node) {
+		if ((node >>> CHUNK_SHIFT) == chunkCount) {
+			if (chunkCount == chunks.length)
+				chunks = Arrays.copyOf(chunks, chunkCount * 2);
+			chunks[chunkCount++] = ByteBuffer.allocateDirect((CHUNK_MASK + 1) * nodeSize);
+		}
+	}
+
+	@Override
+	void store(int node, E key) {
+		codec.write(chunks[node >>> CHUNK_SHIFT], (node & CHUNK_MASK) * nodeSize + KEY, key);
+	}
+
+	private int field(int node, int field) {
+		return chunks[node >>> CHUNK_SHIFT].getInt((node & CHUNK_MASK) * nodeSize + field);
+	}
+
+	private void setField(int node, int field, int value) {
+		chunks[node >>> CHUNK_SHIFT].putInt((node & CHUNK_MASK) * nodeSize + field, value);
+	}
+
+	@Override
+	int left(int node) {
+		return field(node, LEFT);
+	}
+
+	@Override
+	int right(int node) {
+		return field(node, RIGHT);
+	}
+
+	@Override
+	int height(int node) {
+		return field(node, HEIGHT);
+	}
+
+	@Override
+	void setLeft(int node, int child) {
+		setField(node, LEFT, child);
+	}
+
+	@Override
+	void setRight(int node, int child) {
+		setField(node, RIGHT, child);
+	}
+
+	@Override
+	void setHeight(int node, int height) {
+		setField(node, HEIGHT, height);
+	}
+
+	@Override
+	E elementAt(int node) {
+		return codec.read(chunks[node >>> CHUNK_SHIFT], (node & CHUNK_MASK) * nodeSize + KEY);
+	}
+
+	@Override
+	int compare(E entry, int node) {
+		return codec.compare(entry, chunks[node >>> CHUNK_SHIFT], (node & CHUNK_MASK) * nodeSize + KEY);
+	}
+}
@@ -0,0 +1,126 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapBSTreeTests {
+
+	@Test
+	void testIntegerCodec()
+	{
+		checkAgainstTreeSet(FixedWidthCodec.INTEGER, random -> (random.nextInt(10) == 0) ? random.nextInt(500) : random.nextInt());
+	}
+
+	@Test
+	void testLongCodec()
+	{
+		checkAgainstTreeSet(FixedWidthCodec.LONG, random -> (random.nextInt(10) == 0) ? random.nextInt(500) : random.nextLong());
+	}
+
+	@Test
+	void testUuidCodec()
+	{
+		// A small pool of high bits makes many keys tie on them and be ordered by their low bits
+		checkAgainstTreeSet(FixedWidthCodec.UUID, random -> new UUID(random.nextInt(8) - 4L << 60, random.nextLong()));
+	}
+
+	/**
+	 * Runs enough operations to fill more than one arena chunk and to reuse freed slots.
+	 */
+	private static <E extends Comparable<? super E>> void checkAgainstTreeSet(FixedWidthCodec<E> codec, Function<Random, E> keys)
+	{
+		TreeSet<E> expected = new TreeSet<>();
+		Random random = new Random(codec.width());
+		try (OffHeapBSTree<E> tree = new OffHeapBSTree<>(codec)) {
+			for (int i = 0; i < 200_000; i++) {
+				E key = keys.apply(random);
+				int op = random.nextInt(10);
+				if (op < 7)
+					assertEquals(expected.add(key), tree.add(key));
+				else if (op < 8)
+					assertEquals(expected.contains(key), tree.contains(key));
+				else if (op == 8)
+					assertEquals(expected.pollFirst(), elementOf(tree.removeMin()));
+				else
+					assertEquals(expected.pollLast(), elementOf(tree.removeMax()));
+			}
+			assertEquals(expected.size(), tree.size());
+			assertTrue(expected.size() > 1 << 16, "The tree should span more than one arena chunk");
+			assertTrue(tree.getHeight() <= 1.45 * Math.log(expected.size() + 2) / Math.log(2), "The tree should stay balanced");
+			List<E> inorder = new ArrayList<>();
+			for (Iterator<E> iterator = tree.inorderIterator(); iterator.hasNext();)
+				inorder.add(iterator.next());
+			assertEquals(new ArrayList<>(expected), inorder);
+			E first = expected.first();
+			assertEquals(first, tree.search(first).getElement());
+		}
+	}
+
+	@Test
+	void testTraversalOrders()
+	{
+		try (OffHeapBSTree<Integer> tree = new OffHeapBSTree<>(FixedWidthCodec.INTEGER)) {
+			for (int key : new int[] { 4, 2, 6, 1, 3, 5, 7 })
+				tree.add(key);
+			assertEquals("[1, 2, 3, 4, 5, 6, 7]", elements(tree.inorderIterator()));
+			assertEquals("[4, 2, 1, 3, 6, 5, 7]", elements(tree.preorderIterator()));
+			assertEquals("[1, 3, 2, 5, 7, 6, 4]", elements(tree.postorderIterator()));
+			tree.clear();
+			assertTrue(tree.isEmpty());
+			assertTrue(tree.add(1), "A cleared tree should reuse its arena");
+		}
+	}
+
+	@Test
+	void testClose()
+	{
+		OffHeapBSTree<Integer> tree = new OffHeapBSTree<>(FixedWidthCodec.INTEGER);
+		for (int i = 0; i < 100; i++)
+			tree.add(i);
+		Iterator<Integer> open = tree.inorderIterator();
+		tree.close();
+		assertEquals(0, tree.size(), "A closed tree should be empty");
+		assertTrue(tree.isEmpty());
+		assertThrows(IllegalStateException.class, () -> tree.add(1));
+		assertThrows(IllegalStateException.class, () -> tree.contains(1));
+		assertThrows(IllegalStateException.class, () -> tree.removeMin());
+		assertThrows(IllegalStateException.class, () -> tree.getHeight());
+		assertThrows(IllegalStateException.class, () -> tree.clear());
+		assertThrows(IllegalStateException.class, () -> tree.inorderIterator());
+		assertThrows(IllegalStateException.class, () -> open.next(), "An iterator should not read a closed arena");
+		assertDoesNotThrow(() -> tree.close());
+	}
+
+	@Test
+	void testSerializationFailsClearly() throws Exception
+	{
+		try (OffHeapBSTree<Integer> tree = new OffHeapBSTree<>(FixedWidthCodec.INTEGER);
+				ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream())) {
+			tree.add(1);
+			NotSerializableException failure = assertThrows(NotSerializableException.class, () -> out.writeObject(tree));
+			assertTrue(failure.getMessage().contains("off-heap"), "The exception should say why the tree cannot be written");
+		}
+	}
+
+	private static <E> E elementOf(BSTreeNode<E> node) {
+		return (node == null) ? null : node.getElement();
+	}
+
+	private static String elements(Iterator<Integer> iterator) {
+		List<Integer> elements = new ArrayList<>();
+		while (iterator.hasNext())
+			elements.add(iterator.next());
+		return elements.toString();
+	}
+}
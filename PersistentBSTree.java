@@ -0,0 +1,336 @@
+package utilities;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * The `PersistentBSTree` class is a balanced (AVL) binary search tree whose nodes are never modified
+ * once built. Every {@code add}, {@code removeMin} and {@code removeMax} copies only the nodes on the
+ * root-to-leaf path it changes and shares every other subtree with the previous version, then publishes
+ * the new root. Taking a {@link #snapshot()} therefore costs O(1), and readers can walk a frozen version
+ * for as long as they like while writers carry on.
+ * <p>
+ * Writers are serialized with each other; readers never block. Nodes returned by {@link #getRoot()} and
+ * {@link #search(Comparable)} may be shared by several versions and must not be modified.
+ * <p>
+ * Serializing the tree writes the elements of the current version; reading them back builds a
+ * perfectly balanced tree, with no nodes shared with other versions.
+ *
+ * @param <E> The type of elements stored in the tree.
+ */
+public class PersistentBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
+	private static final long serialVersionUID = 2873601453917046263L;
+
+	// The nodes are not serialized; writeObject stores the elements in order instead
+	private transient volatile BSTreeNode<E> root;
+	private final boolean frozen;
+
+	/**
+	 * Constructs an empty persistent binary search tree.
+	 */
+	public PersistentBSTree() {
+		this(null, false);
+	}
+
+	private PersistentBSTree(BSTreeNode<E> root, boolean frozen) {
+		this.root = root;
+		this.frozen = frozen;
+	}
+
+	/**
+	 * Returns a read-only view of the current version of the tree in constant time. Later changes to
+	 * this tree are not visible through the snapshot.
+	 *
+	 * @return A frozen tree sharing the current version's nodes.
+	 */
+	public PersistentBSTree<E> snapshot() {
+		return new PersistentBSTree<>(root, true);
+	}
+
+	/**
+	 * Checks whether this tree is a read-only snapshot.
+	 *
+	 * @return true if this tree rejects changes, false otherwise.
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Returns the root node of the current version. The node may be shared and must not be modified.
+	 *
+	 * @return The root node of the tree, null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> getRoot() {
+		return root;
+	}
+
+	/**
+	 * Returns the height of the current version.
+	 *
+	 * @return The height of the tree.
+	 */
+	@Override
+	public int getHeight() {
+		BSTreeNode<E> current = root;
+		return (current == null) ? 0 : current.getHeight();
+	}
+
+	/**
+	 * Returns the number of elements in the current version.
+	 *
+	 * @return The number of elements in the tree.
+	 */
+	@Override
+	public int size() {
+		BSTreeNode<E> current = root;
+		return (current == null) ? 0 : current.getNumberNodes();
+	}
+
+	/**
+	 * Checks if the current version is empty.
+	 *
+	 * @return true if the tree is empty, false otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+	 * Replaces the current version with an empty one. Snapshots are unaffected.
+	 *
+	 * @throws UnsupportedOperationException if this tree is a snapshot.
+	 */
+	@Override
+	public synchronized void clear() {
+		checkWritable();
+		root = null;
+	}
+
+	/**
+	 * Checks if the current version contains the specified element.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return true if the tree contains the element, false otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean contains(E entry) throws NullPointerException {
+		return search(entry) != null;
+	}
+
+	/**
+	 * Searches the current version for the specified element.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return The (shared) node containing the specified element if found, null otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public BSTreeNode<E> search(E entry) throws NullPointerException {
+		if (entry == null)
+			throw new NullPointerException("Cannot search for a null entry in the tree");
+		BSTreeNode<E> current = root;
+		while (current != null) {
+			int compare = entry.compareTo(current.getElement());
+			if (compare == 0)
+				return current;
+			current = (compare < 0) ? current.getLeft() : current.getRight();
+		}
+		return null;
+	}
+
+	/**
+	 * Publishes a new version containing the specified element, copying only the path to it.
+	 *
+	 * @param newEntry The element to add to the tree.
+	 * @return true if the element is added successfully, false if it already exists in the tree.
+	 * @throws NullPointerException          if the specified element is null.
+	 * @throws UnsupportedOperationException if this tree is a snapshot.
+	 */
+	@Override
+	public synchronized boolean add(E newEntry) throws NullPointerException {
+		if (newEntry == null)
+			throw new NullPointerException("Cannot add null entry to the tree");
+		checkWritable();
+		BSTreeNode<E> updated = insert(root, newEntry);
+		if (updated == root)
+			return false; // Duplicate entry, not added
+		root = updated;
+		return true;
+	}
+
+	/**
+	 * Publishes a new version without the smallest element, copying only the left spine.
+	 *
+	 * @return A new, detached node holding the removed element, or null if the tree is empty.
+	 * @throws UnsupportedOperationException if this tree is a snapshot.
+	 */
+	@Override
+	public synchronized BSTreeNode<E> removeMin() {
+		checkWritable();
+		if (root == null)
+			return null;
+		BSTreeNode<E> current = root;
+		while (current.getLeft() != null)
+			current = current.getLeft();
+		root = withoutMin(root);
+		return new BSTreeNode<>(current.getElement(), null, null);
+	}
+
+	/**
+	 * Publishes a new version without the largest element, copying only the right spine.
+	 *
+	 * @return A new, detached node holding the removed element, or null if the tree is empty.
+	 * @throws UnsupportedOperationException if this tree is a snapshot.
+	 */
+	@Override
+	public synchronized BSTreeNode<E> removeMax() {
+		checkWritable();
+		if (root == null)
+			return null;
+		BSTreeNode<E> current = root;
+		while (current.getRight() != null)
+			current = current.getRight();
+		root = withoutMax(root);
+		return new BSTreeNode<>(current.getElement(), null, null);
+	}
+
+	/**
+	 * Returns an iterator over the current version in inorder. The iterator keeps walking that version
+	 * even if the tree changes.
+	 *
+	 * @return An iterator for inorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> inorderIterator() {
+		return new BSTreeIterators.InorderIterator<>(root);
+	}
+
+	/**
+	 * Returns an iterator over the current version in preorder.
+	 *
+	 * @return An iterator for preorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> preorderIterator() {
+		return new BSTreeIterators.PreorderIterator<>(root);
+	}
+
+	/**
+	 * Returns an iterator over the current version in postorder.
+	 *
+	 * @return An iterator for postorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> postorderIterator() {
+		return new BSTreeIterators.PostorderIterator<>(root);
+	}
+
+	/**
+	 * Writes whether the tree is frozen, the size of the current version and its elements in ascending
+	 * order.
+	 *
+	 * @param out The stream to write to.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		// Read the root once, so that the size and the elements come from the same version
+		BSTreeNode<E> current = root;
+		out.writeInt((current == null) ? 0 : current.getNumberNodes());
+		Iterator<E> elements = new BSTreeIterators.InorderIterator<>(current);
+		while (elements.hasNext())
+			out.writeObject(elements.next());
+	}
+
+	/**
+	 * Reads the elements written by {@link #writeObject} and links them into a perfectly balanced tree
+	 * in linear time.
+	 *
+	 * @param in The stream to read from.
+	 * @throws IOException            if an I/O error occurs.
+	 * @throws ClassNotFoundException if the class of an element cannot be found.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int size = in.readInt();
+		if (size < 0)
+			throw new InvalidObjectException("Negative tree size: " + size);
+		Object[] elements = new Object[size];
+		for (int i = 0; i < elements.length; i++)
+			elements[i] = in.readObject();
+		root = myBSTree.<E>build(elements, elements.length, true).getRoot();
+	}
+
+	private void checkWritable() {
+		if (frozen)
+			throw new UnsupportedOperationException("Cannot modify a tree snapshot");
+	}
+
+	/**
+	 * Returns the root of a version of the subtree that contains the element, or the same node if the
+	 * element was already present. Recursion depth is bounded by the AVL height.
+	 */
+	private BSTreeNode<E> insert(BSTreeNode<E> node, E newEntry) {
+		if (node == null)
+			return new BSTreeNode<>(newEntry, null, null);
+		int compare = newEntry.compareTo(node.getElement());
+		if (compare < 0) {
+			BSTreeNode<E> left = insert(node.getLeft(), newEntry);
+			return (left == node.getLeft()) ? node : join(node.getElement(), left, node.getRight());
+		} else if (compare > 0) {
+			BSTreeNode<E> right = insert(node.getRight(), newEntry);
+			return (right == node.getRight()) ? node : join(node.getElement(), node.getLeft(), right);
+		}
+		return node;
+	}
+
+	private BSTreeNode<E> withoutMin(BSTreeNode<E> node) {
+		if (node.getLeft() == null)
+			return node.getRight();
+		return join(node.getElement(), withoutMin(node.getLeft()), node.getRight());
+	}
+
+	private BSTreeNode<E> withoutMax(BSTreeNode<E> node) {
+		if (node.getRight() == null)
+			return node.getLeft();
+		return join(node.getElement(), node.getLeft(), withoutMax(node.getRight()));
+	}
+
+	/**
+	 * Builds a new node over two subtrees whose heights differ by at most two, rotating through fresh
+	 * nodes where needed so that no existing node is ever changed.
+	 */
+	private BSTreeNode<E> join(E element, BSTreeNode<E> left, BSTreeNode<E> right) {
+		int leftHeight = heightOf(left);
+		int rightHeight = heightOf(right);
+		if (leftHeight > rightHeight + 1) {
+			if (heightOf(left.getLeft()) >= heightOf(left.getRight()))
+				return new BSTreeNode<>(left.getElement(), left.getLeft(),
+						new BSTreeNode<>(element, left.getRight(), right));
+			BSTreeNode<E> pivot = left.getRight();
+			return new BSTreeNode<>(pivot.getElement(),
+					new BSTreeNode<>(left.getElement(), left.getLeft(), pivot.getLeft()),
+					new BSTreeNode<>(element, pivot.getRight(), right));
+		}
+		if (rightHeight > leftHeight + 1) {
+			if (heightOf(right.getRight()) >= heightOf(right.getLeft()))
+				return new BSTreeNode<>(right.getElement(),
+						new BSTreeNode<>(element, left, right.getLeft()), right.getRight());
+			BSTreeNode<E> pivot = right.getLeft();
+			return new BSTreeNode<>(pivot.getElement(),
+					new BSTreeNode<>(element, left, pivot.getLeft()),
+					new BSTreeNode<>(right.getElement(), pivot.getRight(), right.getRight()));
+		}
+		return new BSTreeNode<>(element, left, right);
+	}
+
+	private static int heightOf(BSTreeNode<?> node) {
+		return (node == null) ? -1 : node.getHeight();
+	}
+}
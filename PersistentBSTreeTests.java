@@ -0,0 +1,151 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PersistentBSTreeTests {
+
+	private PersistentBSTree<Integer> tree;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		tree = new PersistentBSTree<>();
+	}
+
+	@Test
+	void testSnapshotKeepsOldContents()
+	{
+		for (int i = 1; i <= 100; i++)
+			tree.add(i);
+		PersistentBSTree<Integer> before = tree.snapshot();
+		String expected = elements(before.inorderIterator());
+
+		for (int i = 101; i <= 200; i++)
+			tree.add(i);
+		for (int i = 0; i < 30; i++) {
+			tree.removeMin();
+			tree.removeMax();
+		}
+		assertEquals(140, tree.size());
+		assertFalse(tree.contains(1));
+
+		assertEquals(100, before.size(), "A snapshot should keep its size");
+		assertEquals(expected, elements(before.inorderIterator()), "A snapshot should keep its contents");
+		assertTrue(before.contains(1));
+		assertFalse(before.contains(150), "A snapshot should not see later additions");
+		assertEquals(1, before.search(1).getElement());
+
+		tree.clear();
+		assertTrue(tree.isEmpty());
+		assertEquals(100, before.size(), "Clearing the tree should not empty its snapshots");
+	}
+
+	@Test
+	void testSnapshotsOfSuccessiveVersions()
+	{
+		TreeSet<Integer> expected = new TreeSet<>();
+		List<PersistentBSTree<Integer>> snapshots = new ArrayList<>();
+		List<String> contents = new ArrayList<>();
+		Random random = new Random(3);
+		for (int i = 0; i < 5000; i++) {
+			int key = random.nextInt(2000);
+			int op = random.nextInt(10);
+			if (op < 7)
+				assertEquals(expected.add(key), tree.add(key));
+			else if (op < 9)
+				assertEquals(expected.pollFirst(), elementOf(tree.removeMin()));
+			else
+				assertEquals(expected.pollLast(), elementOf(tree.removeMax()));
+			if (i % 500 == 0) {
+				snapshots.add(tree.snapshot());
+				contents.add(expected.toString());
+			}
+		}
+		assertEquals(expected.toString(), elements(tree.inorderIterator()));
+		assertTrue(tree.getHeight() <= 1.45 * Math.log(expected.size() + 2) / Math.log(2), "Path copying should keep the tree balanced");
+		for (int i = 0; i < snapshots.size(); i++)
+			assertEquals(contents.get(i), elements(snapshots.get(i).inorderIterator()), "Snapshot " + i + " should be unchanged");
+	}
+
+	@Test
+	void testIteratorWalksItsVersion()
+	{
+		for (int key : new int[] { 2, 1, 3 })
+			tree.add(key);
+		Iterator<Integer> inorder = tree.inorderIterator();
+		tree.add(4);
+		tree.removeMin();
+		assertEquals("[1, 2, 3]", elements(inorder), "An iterator should keep walking the version it started on");
+	}
+
+	@Test
+	void testSnapshotIsReadOnly()
+	{
+		tree.add(1);
+		PersistentBSTree<Integer> frozen = tree.snapshot();
+		assertTrue(frozen.isFrozen());
+		assertFalse(tree.isFrozen());
+		assertThrows(UnsupportedOperationException.class, () -> frozen.add(2));
+		assertThrows(UnsupportedOperationException.class, () -> frozen.removeMin());
+		assertThrows(UnsupportedOperationException.class, () -> frozen.removeMax());
+		assertThrows(UnsupportedOperationException.class, () -> frozen.clear());
+		assertEquals(1, frozen.snapshot().size(), "A snapshot of a snapshot should share its version");
+	}
+
+	@Test
+	void testSerializationRoundTrip() throws Exception
+	{
+		for (int i = 1; i <= 1000; i++)
+			tree.add(i);
+		PersistentBSTree<Integer> frozen = tree.snapshot();
+		tree.removeMin();
+
+		PersistentBSTree<Integer> copy = roundTrip(tree);
+		assertEquals(999, copy.size());
+		assertFalse(copy.isFrozen());
+		assertEquals(elements(tree.inorderIterator()), elements(copy.inorderIterator()));
+		assertEquals(9, copy.getHeight(), "A read tree should be perfectly balanced");
+		assertTrue(copy.add(1), "A read tree should accept new elements");
+		assertFalse(tree.contains(1), "A read tree should not share nodes with the original");
+
+		PersistentBSTree<Integer> frozenCopy = roundTrip(frozen);
+		assertTrue(frozenCopy.isFrozen(), "A read snapshot should stay read-only");
+		assertEquals(elements(frozen.inorderIterator()), elements(frozenCopy.inorderIterator()));
+		assertThrows(UnsupportedOperationException.class, () -> frozenCopy.add(0));
+
+		assertTrue(roundTrip(new PersistentBSTree<Integer>()).isEmpty());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static PersistentBSTree<Integer> roundTrip(PersistentBSTree<Integer> source) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(source);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (PersistentBSTree<Integer>) in.readObject();
+		}
+	}
+
+	private static Integer elementOf(BSTreeNode<Integer> node) {
+		return (node == null) ? null : node.getElement();
+	}
+
+	private static String elements(Iterator<Integer> iterator) {
+		List<Integer> elements = new ArrayList<>();
+		while (iterator.hasNext())
+			elements.add(iterator.next());
+		return elements.toString();
+	}
+}
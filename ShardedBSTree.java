@@ -0,0 +1,359 @@
+package utilities;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The `ShardedBSTree` class partitions the key space into ranges, each held by its own balanced
+ * {@link myBSTree} behind its own lock, so writers to different ranges never contend. Shard
+ * {@code i} holds the keys from boundary {@code i - 1} (inclusive) up to boundary {@code i}
+ * (exclusive); the first and last shards are open-ended.
+ * <p>
+ * Routing reads an immutable layout without locking. A shard that gets hot can be split in two while
+ * the other shards stay available: the split retires the old shard under its lock and publishes a
+ * new layout, and any operation that reaches a retired shard simply routes again.
+ * <p>
+ * Operations spanning shards ({@link #removeMin()}, {@link #removeMax()}, {@link #size()} and the
+ * iterator) visit the shards one at a time, so they are not atomic with respect to concurrent writes
+ * to shards they have already passed.
+ *
+ * @param <E> The type of elements stored in the tree.
+ */
+public class ShardedBSTree<E extends Comparable<? super E>> {
+	private volatile Layout<E> layout;
+
+	/**
+	 * Constructs a sharded tree with one shard per key range delimited by the boundaries.
+	 *
+	 * @param boundaries The strictly ascending keys at which a new shard starts.
+	 * @throws NullPointerException     if the array or any boundary is null.
+	 * @throws IllegalArgumentException if the boundaries are not strictly ascending.
+	 */
+	public ShardedBSTree(E[] boundaries) throws NullPointerException, IllegalArgumentException {
+		if (boundaries == null)
+			throw new NullPointerException("Shard boundaries cannot be null");
+		for (int i = 0; i < boundaries.length; i++) {
+			if (boundaries[i] == null)
+				throw new NullPointerException("Shard boundaries cannot be null");
+			if (i > 0 && boundaries[i - 1].compareTo(boundaries[i]) >= 0)
+				throw new IllegalArgumentException("Shard boundaries must be strictly ascending");
+		}
+		Shard<E>[] shards = newShards(boundaries.length + 1);
+		for (int i = 0; i < shards.length; i++)
+			shards[i] = new Shard<>(myBSTree.<E>balanced());
+		this.layout = new Layout<>(boundaries.clone(), shards);
+	}
+
+	/**
+	 * Returns the number of shards.
+	 *
+	 * @return The number of shards.
+	 */
+	public int shardCount() {
+		return layout.shards.length;
+	}
+
+	/**
+	 * Returns the keys at which each shard after the first starts.
+	 *
+	 * @return A copy of the shard boundaries in ascending order.
+	 */
+	public E[] boundaries() {
+		return layout.boundaries.clone();
+	}
+
+	/**
+	 * Adds the element to the shard covering it.
+	 *
+	 * @param newEntry The element to add.
+	 * @return true if the element is added successfully, false if it already exists.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	public boolean add(E newEntry) throws NullPointerException {
+		if (newEntry == null)
+			throw new NullPointerException("Cannot add null entry to the tree");
+		while (true) {
+			Shard<E> shard = route(newEntry);
+			shard.lock.lock();
+			try {
+				if (!shard.retired)
+					return shard.tree.add(newEntry);
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Checks if the shard covering the element contains it.
+	 *
+	 * @param entry The element to search for.
+	 * @return true if the tree contains the element, false otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	public boolean contains(E entry) throws NullPointerException {
+		if (entry == null)
+			throw new NullPointerException("Cannot search for a null entry in the tree");
+		while (true) {
+			Shard<E> shard = route(entry);
+			shard.lock.lock();
+			try {
+				if (!shard.retired)
+					return shard.tree.contains(entry);
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Removes the smallest element from the first non-empty shard.
+	 *
+	 * @return The smallest element, or null if every shard is empty.
+	 */
+	public E removeMin() {
+		return removeExtreme(true);
+	}
+
+	/**
+	 * Removes the largest element from the last non-empty shard.
+	 *
+	 * @return The largest element, or null if every shard is empty.
+	 */
+	public E removeMax() {
+		return removeExtreme(false);
+	}
+
+	private E removeExtreme(boolean smallest) {
+		retry: while (true) {
+			Shard<E>[] shards = layout.shards;
+			for (int i = 0; i < shards.length; i++) {
+				Shard<E> shard = shards[smallest ? i : shards.length - 1 - i];
+				shard.lock.lock();
+				try {
+					if (shard.retired)
+						continue retry;
+					shard.hits.increment();
+					BSTreeNode<E> removed = smallest ? shard.tree.removeMin() : shard.tree.removeMax();
+					if (removed != null)
+						return removed.getElement();
+				} finally {
+					shard.lock.unlock();
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the number of elements across all shards.
+	 *
+	 * @return The number of elements in the tree.
+	 */
+	public int size() {
+		retry: while (true) {
+			int size = 0;
+			for (Shard<E> shard : layout.shards) {
+				shard.lock.lock();
+				try {
+					if (shard.retired)
+						continue retry;
+					size += shard.tree.size();
+				} finally {
+					shard.lock.unlock();
+				}
+			}
+			return size;
+		}
+	}
+
+	/**
+	 * Checks if every shard is empty.
+	 *
+	 * @return true if the tree is empty, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Returns an iterator over a copy of all elements in ascending order. Since shards cover
+	 * consecutive key ranges, the merge is a concatenation of each shard's inorder traversal.
+	 *
+	 * @return An iterator over the elements of every shard in ascending order.
+	 */
+	public Iterator<E> inorderIterator() {
+		retry: while (true) {
+			Object[] elements = new Object[16];
+			int count = 0;
+			for (Shard<E> shard : layout.shards) {
+				shard.lock.lock();
+				try {
+					if (shard.retired)
+						continue retry;
+					if (count + shard.tree.size() > elements.length)
+						elements = Arrays.copyOf(elements, Math.max(elements.length * 2, count + shard.tree.size()));
+					Iterator<E> source = shard.tree.inorderIterator();
+					while (source.hasNext())
+						elements[count++] = source.next();
+				} finally {
+					shard.lock.unlock();
+				}
+			}
+			return new SnapshotIterator<>(elements, count);
+		}
+	}
+
+	/**
+	 * Returns the index of the shard that served the most operations since it was created.
+	 *
+	 * @return The index of the hottest shard.
+	 */
+	public int hottestShard() {
+		Shard<E>[] shards = layout.shards;
+		int hottest = 0;
+		for (int i = 1; i < shards.length; i++)
+			if (shards[i].hits.sum() > shards[hottest].hits.sum())
+				hottest = i;
+		return hottest;
+	}
+
+	/**
+	 * Splits a shard in two at its median element.
+	 *
+	 * @param index The index of the shard to split.
+	 * @throws IndexOutOfBoundsException if there is no shard at the index.
+	 * @throws IllegalStateException     if the shard holds fewer than two elements.
+	 */
+	public void splitShard(int index) throws IndexOutOfBoundsException, IllegalStateException {
+		splitShard(index, null);
+	}
+
+	/**
+	 * Splits a shard in two at the given key: the lower shard keeps the keys below it and the new upper
+	 * shard takes the rest. Only the split shard is locked; the others stay available throughout. The
+	 * cost is linear in the size of the split shard.
+	 *
+	 * @param index The index of the shard to split.
+	 * @param at    The first key of the new upper shard, or null to split at the median.
+	 * @throws IndexOutOfBoundsException if there is no shard at the index.
+	 * @throws IllegalArgumentException  if the key is outside the shard's range or on its lower bound.
+	 * @throws IllegalStateException     if no key is given and the shard holds fewer than two elements.
+	 */
+	public synchronized void splitShard(int index, E at) throws IndexOutOfBoundsException, IllegalArgumentException, IllegalStateException {
+		Layout<E> current = layout;
+		if (index < 0 || index >= current.shards.length)
+			throw new IndexOutOfBoundsException("No shard at index '" + index + "'");
+		Shard<E> shard = current.shards[index];
+		shard.lock.lock();
+		try {
+			myBSTree<E> tree = shard.tree;
+			if (at == null) {
+				if (tree.size() < 2)
+					throw new IllegalStateException("Cannot split a shard holding fewer than two elements");
+				at = tree.select(tree.size() / 2);
+			}
+			E low = (index == 0) ? null : current.boundaries[index - 1];
+			E high = (index == current.boundaries.length) ? null : current.boundaries[index];
+			if ((low != null && at.compareTo(low) <= 0) || (high != null && at.compareTo(high) >= 0))
+				throw new IllegalArgumentException("Split key is outside the shard's range");
+
+			Object[] lower = new Object[tree.rank(at)];
+			Object[] upper = new Object[tree.size() - lower.length];
+			Iterator<E> source = tree.inorderIterator();
+			for (int i = 0; i < lower.length; i++)
+				lower[i] = source.next();
+			for (int i = 0; i < upper.length; i++)
+				upper[i] = source.next();
+
+			E[] boundaries = Arrays.copyOf(current.boundaries, current.boundaries.length + 1);
+			boundaries[index] = at;
+			System.arraycopy(current.boundaries, index, boundaries, index + 1, current.boundaries.length - index);
+			Shard<E>[] shards = newShards(current.shards.length + 1);
+			System.arraycopy(current.shards, 0, shards, 0, index);
+			shards[index] = new Shard<>(myBSTree.<E>build(lower, lower.length, true));
+			shards[index + 1] = new Shard<>(myBSTree.<E>build(upper, upper.length, true));
+			System.arraycopy(current.shards, index + 1, shards, index + 2, current.shards.length - index - 1);
+
+			layout = new Layout<>(boundaries, shards);
+			shard.retired = true;
+		} finally {
+			shard.lock.unlock();
+		}
+	}
+
+	private Shard<E> route(E key) {
+		Layout<E> current = layout;
+		int low = 0, high = current.boundaries.length;
+		// Find the number of boundaries less than or equal to the key
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (current.boundaries[middle].compareTo(key) <= 0)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		Shard<E> shard = current.shards[low];
+		shard.hits.increment();
+		return shard;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E extends Comparable<? super E>> Shard<E>[] newShards(int count) {
+		return (Shard<E>[]) new Shard<?>[count];
+	}
+
+	/**
+	 * An immutable snapshot of the boundaries and the shards between them.
+	 */
+	private static class Layout<E extends Comparable<? super E>> {
+		final E[] boundaries;
+		final Shard<E>[] shards;
+
+		Layout(E[] boundaries, Shard<E>[] shards) {
+			this.boundaries = boundaries;
+			this.shards = shards;
+		}
+	}
+
+	/**
+	 * One key range: its tree, the lock guarding it and a hit counter for spotting hot shards.
+	 */
+	private static class Shard<E extends Comparable<? super E>> {
+		final myBSTree<E> tree;
+		final ReentrantLock lock = new ReentrantLock();
+		final LongAdder hits = new LongAdder();
+		// Set under the lock once the shard has been replaced by a split
+		boolean retired;
+
+		Shard(myBSTree<E> tree) {
+			this.tree = tree;
+		}
+	}
+
+	private static class SnapshotIterator<E> implements Iterator<E> {
+		private final Object[] elements;
+		private final int count;
+		private int index;
+
+		SnapshotIterator(Object[] elements, int count) {
+			this.elements = elements;
+			this.count = count;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index < count;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() throws NoSuchElementException {
+			if (!hasNext())
+				throw new NoSuchElementException("No more elements in the iterator.");
+			return (E) elements[index++];
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShardedBSTreeTests {
+
+	private ShardedBSTree<Integer> tree;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		tree = new ShardedBSTree<>(new Integer[] { 10, 20 });
+	}
+
+	@Test
+	void testRoutingAcrossBoundaries()
+	{
+		for (int i = 29; i >= 0; i--)
+			assertTrue(tree.add(i));
+		assertFalse(tree.add(10), "A duplicate on a boundary should be found in its shard");
+		assertFalse(tree.add(9));
+		assertEquals(30, tree.size());
+		for (int i = 0; i < 30; i++)
+			assertTrue(tree.contains(i));
+		assertFalse(tree.contains(30));
+		assertFalse(tree.contains(-1));
+
+		// A boundary key belongs to the shard it starts, so shard 1 holds 10..19 and splits at 15
+		tree.splitShard(1);
+		assertArrayEquals(new Integer[] { 10, 15, 20 }, tree.boundaries());
+		assertEquals(4, tree.shardCount());
+
+		for (int i = 0; i < 1000; i++)
+			tree.contains(20);
+		assertEquals(3, tree.hottestShard(), "Lookups of a boundary key should hit the shard above it");
+	}
+
+	@Test
+	void testIteratorConcatenatesShardsInOrder()
+	{
+		int[] keys = { 25, 3, 17, 10, 99, -5, 20, 19, 0, 11 };
+		for (int key : keys)
+			tree.add(key);
+		assertEquals("[-5, 0, 3, 10, 11, 17, 19, 20, 25, 99]", elements(tree.inorderIterator()));
+		tree.splitShard(2, 50);
+		tree.splitShard(0);
+		assertEquals(5, tree.shardCount());
+		assertEquals("[-5, 0, 3, 10, 11, 17, 19, 20, 25, 99]", elements(tree.inorderIterator()),
+				"Splitting should not change the merged order");
+	}
+
+	@Test
+	void testRemoveExtremesSkipEmptyShards()
+	{
+		tree.add(15);
+		tree.add(12);
+		assertEquals(12, tree.removeMin(), "removeMin should pass over an empty first shard");
+		assertEquals(15, tree.removeMax(), "removeMax should pass over an empty last shard");
+		assertNull(tree.removeMin());
+		assertTrue(tree.isEmpty());
+	}
+
+	@Test
+	void testSplitShard()
+	{
+		for (int i = 0; i < 30; i++)
+			tree.add(i);
+		tree.splitShard(2, 25);
+		assertArrayEquals(new Integer[] { 10, 20, 25 }, tree.boundaries());
+		assertTrue(tree.add(30));
+		assertFalse(tree.add(24));
+		assertFalse(tree.add(25));
+		assertEquals(31, tree.size());
+		for (int i = 0; i <= 30; i++)
+			assertTrue(tree.contains(i), "A split shard should keep " + i);
+
+		assertThrows(IllegalArgumentException.class, () -> tree.splitShard(1, 10), "A split on the lower bound leaves an empty shard");
+		assertThrows(IllegalArgumentException.class, () -> tree.splitShard(1, 20), "A split key must be inside the shard");
+		assertThrows(IndexOutOfBoundsException.class, () -> tree.splitShard(4));
+		ShardedBSTree<Integer> sparse = new ShardedBSTree<>(new Integer[0]);
+		sparse.add(1);
+		assertThrows(IllegalStateException.class, () -> sparse.splitShard(0), "A single element has no median to split at");
+		sparse.splitShard(0, 1);
+		assertEquals(1, sparse.removeMin());
+	}
+
+	@Test
+	void testInvalidBoundaries()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new ShardedBSTree<>(new Integer[] { 10, 10 }));
+		assertThrows(NullPointerException.class, () -> new ShardedBSTree<>(new Integer[] { 10, null }));
+		assertThrows(NullPointerException.class, () -> tree.add(null));
+	}
+
+	@Test
+	void testSplitWhileWriting() throws Exception
+	{
+		int writers = 4, addsPerWriter = 20_000;
+		ShardedBSTree<Integer> sharded = new ShardedBSTree<>(new Integer[] { 1 << 30 });
+		ConcurrentSkipListSet<Integer> expected = new ConcurrentSkipListSet<>();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int w = 0; w < writers; w++) {
+			int offset = w;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < addsPerWriter; i++) {
+					int key = i * writers + offset;
+					expected.add(key);
+					sharded.add(key);
+				}
+			}));
+		}
+		threads.add(new Thread(() -> {
+			// Keep splitting the busiest shard while the writers fill it
+			for (int splits = 0; splits < 8;) {
+				try {
+					sharded.splitShard(sharded.hottestShard());
+					splits++;
+				} catch (IllegalStateException tooSmall) {
+					Thread.yield();
+				}
+			}
+		}));
+		for (Thread thread : threads) {
+			thread.setUncaughtExceptionHandler((t, e) -> failure.compareAndSet(null, e));
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertNull(failure.get(), "No thread should fail");
+		assertEquals(10, sharded.shardCount());
+		assertEquals(expected.size(), sharded.size());
+		assertEquals(expected.toString(), elements(sharded.inorderIterator()));
+	}
+
+	private static String elements(Iterator<Integer> iterator) {
+		List<Integer> elements = new ArrayList<>();
+		while (iterator.hasNext())
+			elements.add(iterator.next());
+		return elements.toString();
+	}
+}
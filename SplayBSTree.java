@@ -0,0 +1,402 @@
+package utilities;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The `SplayBSTree` class is a self-adjusting binary search tree. Every search, insertion and removal
+ * splays the node it reaches to the root with a series of rotations that also roughly halve the depth
+ * of the nodes on the path, so recently and frequently used elements stay near the top. Any sequence
+ * of m operations costs O(m log n) in total, and on skewed access patterns, where a few elements take
+ * most of the lookups, those elements are found in a few comparisons.
+ * <p>
+ * Splaying is done top down in a single pass, and the nodes cache no heights or counts: every access
+ * rewrites the links along its path, and refreshing cached fields would also read every sibling off
+ * the path. {@link BSTreeNode}s keep those fields fresh on every link change, so the tree uses its own
+ * nodes instead: {@link #getRoot()} is not supported, and {@link #getHeight()} walks the whole tree.
+ * <p>
+ * For the same reason {@link #search} allocates a new, detached node holding the element on every
+ * hit. The node is small and short-lived, and the splay dominates the cost of a lookup: in the Zipf
+ * scenario of {@link BSTreeBenchmark}, {@code search} runs within noise of {@link #contains}, which
+ * splays the same way and allocates nothing. Use {@code contains} when only membership matters.
+ * <p>
+ * Because searches restructure the tree, even {@link #contains} and {@link #search} modify it: the
+ * tree must not be used by several threads at once, or iterated while it is searched.
+ *
+ * @param <E> The type of elements stored in the tree.
+ */
+public class SplayBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
+	private static final long serialVersionUID = 5214926187045130371L;
+
+	// The nodes are not serialized; writeObject stores the elements in order instead
+	private transient Node<E> root;
+	private int size;
+	// Scratch node whose children collect the left and right trees while splaying
+	private transient Node<E> header;
+
+	/**
+	 * Constructs an empty splay tree.
+	 */
+	public SplayBSTree() {
+		this.root = null;
+		this.size = 0;
+	}
+
+	/**
+	 * Not supported: the nodes of a splay tree are internal.
+	 *
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public BSTreeNode<E> getRoot() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("A splay tree does not expose its nodes");
+	}
+
+	/**
+	 * Returns the height of the tree, which changes with every access. Heights are not cached, so this
+	 * walks the whole tree.
+	 *
+	 * @return The height of the tree, 0 if it is empty.
+	 */
+	@Override
+	public int getHeight() {
+		int height = 0;
+		NodeIterator<E> nodes = new NodeIterator<>(root, 0);
+		while (nodes.hasNext()) {
+			nodes.next();
+			height = Math.max(height, nodes.depth());
+		}
+		return height;
+	}
+
+	/**
+	 * Returns the number of elements in the tree.
+	 *
+	 * @return The number of elements in the tree.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the tree is empty.
+	 *
+	 * @return true if the tree is empty, false otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Clears the tree, removing all elements.
+	 */
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+	}
+
+	/**
+	 * Checks if the tree contains the specified element, splaying the last node reached to the root.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return true if the tree contains the element, false otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean contains(E entry) throws NullPointerException {
+		if (entry == null)
+			throw new NullPointerException("Cannot search for a null entry in the tree");
+		if (root == null)
+			return false;
+		splay(entry, 0);
+		return entry.compareTo(root.element) == 0;
+	}
+
+	/**
+	 * Searches for the specified element and splays the last node reached to the root, whether or not
+	 * it holds the element.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return A new, detached node holding the stored element if found, null otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public BSTreeNode<E> search(E entry) throws NullPointerException {
+		return contains(entry) ? new BSTreeNode<>(root.element, null, null) : null;
+	}
+
+	/**
+	 * Adds the specified element to the tree as its new root. If the element is already present, its
+	 * node is splayed to the root instead.
+	 *
+	 * @param newEntry The element to add to the tree.
+	 * @return true if the element is added successfully, false if it already exists in the tree.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean add(E newEntry) throws NullPointerException {
+		if (newEntry == null)
+			throw new NullPointerException("Cannot add null entry to the tree");
+		Node<E> node = new Node<>(newEntry);
+		if (root != null) {
+			splay(newEntry, 0);
+			int compare = newEntry.compareTo(root.element);
+			if (compare == 0)
+				return false; // Duplicate entry, not added
+			// The root is now the neighbour of the new element, so the tree splits cleanly at it
+			if (compare < 0) {
+				node.left = root.left;
+				node.right = root;
+				root.left = null;
+			} else {
+				node.right = root.right;
+				node.left = root;
+				root.right = null;
+			}
+		}
+		root = node;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Splays the smallest element to the root and removes it.
+	 *
+	 * @return A new, detached node holding the smallest element, or null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> removeMin() {
+		return removeExtreme(-1);
+	}
+
+	/**
+	 * Splays the largest element to the root and removes it.
+	 *
+	 * @return A new, detached node holding the largest element, or null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> removeMax() {
+		return removeExtreme(1);
+	}
+
+	private BSTreeNode<E> removeExtreme(int direction) {
+		if (root == null)
+			return null;
+		splay(null, direction);
+		// The extreme has no child on its own side, so its other subtree is the rest of the tree
+		Node<E> removed = root;
+		root = (direction < 0) ? removed.right : removed.left;
+		size--;
+		return new BSTreeNode<>(removed.element, null, null);
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in inorder. Iterating does not splay.
+	 *
+	 * @return An iterator for inorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> inorderIterator() {
+		return new NodeIterator<>(root, 1);
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in preorder. Iterating does not splay.
+	 *
+	 * @return An iterator for preorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> preorderIterator() {
+		return new NodeIterator<>(root, 0);
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in postorder. Iterating does not splay.
+	 *
+	 * @return An iterator for postorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> postorderIterator() {
+		return new NodeIterator<>(root, 2);
+	}
+
+	/**
+	 * Splays the node holding the key, or the last node on its search path, to the root in one pass
+	 * from the top (Sleator and Tarjan). Nodes passed on the way are hung on a left tree of smaller
+	 * elements and a right tree of larger ones, and two steps in the same direction rotate first, which
+	 * is what halves the depth of the path. A null key instead always moves in the given direction, so
+	 * that -1 splays the smallest element and 1 the largest.
+	 */
+	private void splay(E key, int direction) {
+		if (header == null)
+			header = new Node<>(null);
+		// The left tree hangs off header.right and the right tree off header.left
+		Node<E> left = header, right = header;
+		Node<E> current = root;
+		while (true) {
+			int compare = (key == null) ? direction : key.compareTo(current.element);
+			if (compare < 0) {
+				if (current.left == null)
+					break;
+				if (((key == null) ? direction : key.compareTo(current.left.element)) < 0) {
+					Node<E> child = current.left;
+					current.left = child.right;
+					child.right = current;
+					current = child;
+					if (current.left == null)
+						break;
+				}
+				right.left = current;
+				right = current;
+				current = current.left;
+			} else if (compare > 0) {
+				if (current.right == null)
+					break;
+				if (((key == null) ? direction : key.compareTo(current.right.element)) > 0) {
+					Node<E> child = current.right;
+					current.right = child.left;
+					child.left = current;
+					current = child;
+					if (current.right == null)
+						break;
+				}
+				left.right = current;
+				left = current;
+				current = current.right;
+			} else {
+				break;
+			}
+		}
+		left.right = current.left;
+		right.left = current.right;
+		current.left = header.right;
+		current.right = header.left;
+		header.left = header.right = null;
+		root = current;
+	}
+
+	/**
+	 * Writes the size of the tree followed by its elements in ascending order.
+	 *
+	 * @param out The stream to write to.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		Iterator<E> elements = inorderIterator();
+		while (elements.hasNext())
+			out.writeObject(elements.next());
+	}
+
+	/**
+	 * Reads the elements written by {@link #writeObject}. Adding them in ascending order makes each one
+	 * the new root above the previous one, which costs O(1) per element.
+	 *
+	 * @param in The stream to read from.
+	 * @throws IOException            if an I/O error occurs.
+	 * @throws ClassNotFoundException if the class of an element cannot be found.
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int count = size;
+		if (count < 0)
+			throw new InvalidObjectException("Negative tree size: " + count);
+		size = 0;
+		for (int i = 0; i < count; i++)
+			add((E) in.readObject());
+	}
+
+	private static class Node<E> {
+		final E element;
+		Node<E> left, right;
+
+		Node(E element) {
+			this.element = element;
+		}
+	}
+
+	/**
+	 * Walks the tree with a stack of (node, step) frames. Each node takes three steps, visiting its
+	 * element at the step given by the order (0 for preorder, 1 for inorder, 2 for postorder) and
+	 * descending into its left and then its right child at the other two. The stack grows as needed,
+	 * since a splay tree can be as tall as it is large.
+	 */
+	private static class NodeIterator<E> implements Iterator<E> {
+		private final int order;
+		private Object[] nodes = new Object[16];
+		private int[] steps = new int[16];
+		private int depth;
+		private Node<E> next;
+		private int nextDepth, lastDepth;
+
+		public NodeIterator(Node<E> root, int order) {
+			this.order = order;
+			if (root != null)
+				push(root);
+			advance();
+		}
+
+		private void push(Node<E> node) {
+			if (depth == nodes.length) {
+				nodes = Arrays.copyOf(nodes, 2 * depth);
+				steps = Arrays.copyOf(steps, 2 * depth);
+			}
+			nodes[depth] = node;
+			steps[depth++] = 0;
+		}
+
+		/**
+		 * Runs steps until one visits a node, leaving it in {@code next}, or the stack runs empty.
+		 */
+		@SuppressWarnings("unchecked")
+		private void advance() {
+			next = null;
+			while (depth > 0) {
+				Node<E> node = (Node<E>) nodes[depth - 1];
+				int step = steps[depth - 1]++;
+				if (step == 3) {
+					nodes[--depth] = null;
+					continue;
+				}
+				if (step == order) {
+					next = node;
+					nextDepth = depth - 1;
+					return;
+				}
+				Node<E> child = (step == 0 || (step == 1 && order == 0)) ? node.left : node.right;
+				if (child != null)
+					push(child);
+			}
+		}
+
+		/**
+		 * Returns the depth of the node whose element {@link #next()} returned last.
+		 */
+		int depth() {
+			return lastDepth;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public E next() throws NoSuchElementException {
+			if (!hasNext())
+				throw new NoSuchElementException("No more elements in the iterator.");
+			E element = next.element;
+			lastDepth = nextDepth;
+			advance();
+			return element;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SplayBSTreeTests {
+
+	private SplayBSTree<Integer> tree;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		tree = new SplayBSTree<>();
+	}
+
+	@Test
+	void testAgainstTreeSet()
+	{
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(24);
+		for (int i = 0; i < 50_000; i++) {
+			// A small hot set mixed with a wide range keeps the tree reshaping itself
+			int key = (random.nextInt(4) == 0) ? random.nextInt(20) : random.nextInt(5000);
+			int op = random.nextInt(10);
+			if (op < 5)
+				assertEquals(expected.add(key), tree.add(key));
+			else if (op < 7)
+				assertEquals(expected.contains(key), tree.contains(key));
+			else if (op < 8)
+				assertEquals(expected.contains(key) ? key : null, elementOf(tree.search(key)));
+			else if (op < 9)
+				assertEquals(expected.pollFirst(), elementOf(tree.removeMin()));
+			else
+				assertEquals(expected.pollLast(), elementOf(tree.removeMax()));
+			assertEquals(expected.size(), tree.size());
+			if (i % 5000 == 0)
+				assertEquals(expected.toString(), elements(tree.inorderIterator()));
+		}
+		assertEquals(expected.toString(), elements(tree.inorderIterator()));
+	}
+
+	@Test
+	void testAccessSplaysToRoot()
+	{
+		for (int i = 1; i <= 100; i++)
+			tree.add(i);
+		// Each insertion of a larger key becomes the root over the previous one
+		assertEquals(99, tree.getHeight());
+		assertTrue(tree.contains(1));
+		assertEquals(1, tree.preorderIterator().next(), "A found element should be splayed to the root");
+		assertTrue(tree.getHeight() < 99, "Splaying the deepest node should roughly halve the path");
+		assertNull(tree.search(1000));
+		assertEquals(100, tree.preorderIterator().next(), "A failed search should splay the last node reached");
+		assertFalse(tree.add(50));
+		assertEquals(50, tree.preorderIterator().next(), "A duplicate should be splayed to the root");
+	}
+
+	@Test
+	void testTraversalOrders()
+	{
+		// Adding 2 after 1 and 3 makes it the root over both
+		for (int key : new int[] { 1, 3, 2 })
+			tree.add(key);
+		assertEquals("[1, 2, 3]", elements(tree.inorderIterator()));
+		assertEquals("[2, 1, 3]", elements(tree.preorderIterator()));
+		assertEquals("[1, 3, 2]", elements(tree.postorderIterator()));
+		assertEquals(1, tree.getHeight());
+	}
+
+	@Test
+	void testSerializationRoundTrip() throws Exception
+	{
+		Random random = new Random(7);
+		for (int i = 0; i < 1000; i++)
+			tree.add(random.nextInt(10_000));
+		SplayBSTree<Integer> copy = roundTrip(tree);
+		assertEquals(tree.size(), copy.size());
+		assertEquals(elements(tree.inorderIterator()), elements(copy.inorderIterator()));
+		int largest = tree.removeMax().getElement();
+		assertTrue(copy.contains(largest), "The copy should not share nodes with the original");
+		assertTrue(copy.add(-1), "A read tree should accept new elements");
+		assertEquals(-1, copy.removeMin().getElement());
+
+		SplayBSTree<Integer> empty = roundTrip(new SplayBSTree<>());
+		assertTrue(empty.isEmpty());
+		assertEquals(0, empty.getHeight());
+		assertTrue(empty.add(1));
+	}
+
+	@Test
+	void testInvalidArguments()
+	{
+		assertThrows(NullPointerException.class, () -> tree.add(null));
+		assertThrows(NullPointerException.class, () -> tree.contains(null));
+		assertThrows(NullPointerException.class, () -> tree.search(null));
+		assertThrows(UnsupportedOperationException.class, () -> tree.getRoot());
+		assertNull(tree.removeMin());
+		assertNull(tree.removeMax());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static SplayBSTree<Integer> roundTrip(SplayBSTree<Integer> source) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(source);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (SplayBSTree<Integer>) in.readObject();
+		}
+	}
+
+	private static Integer elementOf(BSTreeNode<Integer> node) {
+		return (node == null) ? null : node.getElement();
+	}
+
+	private static String elements(Iterator<Integer> iterator) {
+		List<Integer> elements = new ArrayList<>();
+		while (iterator.hasNext())
+			elements.add(iterator.next());
+		return elements.toString();
+	}
+}
@@ -0,0 +1,413 @@
+package utilities;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.SplittableRandom;
+
+/**
+ * The `TreapBSTree` class is a randomized binary search tree (treap). Every node draws a random
+ * priority when it is created, and the tree is kept in heap order on the priorities as well as in
+ * search order on the elements, which makes its shape that of a tree built by inserting the elements in
+ * random order: the expected height is O(log n) whatever order they really arrive in. Insertion never
+ * rotates; it cuts the subtree at the new node's place in two with {@link #split} and hangs the halves
+ * below the node.
+ * <p>
+ * {@link #split(Comparable)} and {@link #merge(TreapBSTree, TreapBSTree)} are exposed as operations of
+ * their own, each in expected O(log n) time, and touch only the nodes on one or two root-to-leaf paths,
+ * which keeps the tree simple to make persistent or to process in parallel by subtrees.
+ * <p>
+ * Priorities come from a {@link SplittableRandom}; a tree constructed with a seed, and every tree split
+ * or merged from it, has the same shape on every run for the same operations.
+ *
+ * @param <E> The type of elements stored in the tree.
+ */
+public class TreapBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
+	private static final long serialVersionUID = 6087413356640382269L;
+
+	// The nodes are not serialized; writeObject stores the elements in order instead
+	private transient BSTreeNode<E> root;
+	private transient SplittableRandom random;
+	// Scratch stack for the root-to-node path of add and the removals, reused between calls
+	private transient ArrayStack<BSTreeNode<E>> path;
+
+	/**
+	 * Constructs an empty treap with randomly seeded priorities.
+	 */
+	public TreapBSTree() {
+		this(new SplittableRandom());
+	}
+
+	/**
+	 * Constructs an empty treap whose priorities are drawn from a generator with the given seed.
+	 *
+	 * @param seed The seed of the priority generator.
+	 */
+	public TreapBSTree(long seed) {
+		this(new SplittableRandom(seed));
+	}
+
+	private TreapBSTree(SplittableRandom random) {
+		this.root = null;
+		this.random = random;
+	}
+
+	/**
+	 * Moves the elements greater than or equal to the key into a new tree, leaving the smaller ones in
+	 * this one, in expected O(log n) time. The new tree draws its priorities from a generator split off
+	 * this tree's.
+	 *
+	 * @param key The first element of the returned tree, if present.
+	 * @return A new tree holding the elements greater than or equal to the key.
+	 * @throws NullPointerException if the key is null.
+	 */
+	public TreapBSTree<E> split(E key) throws NullPointerException {
+		if (key == null)
+			throw new NullPointerException("Cannot split a tree at a null key");
+		BSTreeJoins.Split<E> halves = split(root, key);
+		root = halves.left;
+		TreapBSTree<E> upper = new TreapBSTree<>(random.split());
+		upper.root = merge(halves.match, halves.right);
+		return upper;
+	}
+
+	/**
+	 * Moves the elements of two trees into a new one, in expected O(log n) time. Every element of the
+	 * left tree must be smaller than every element of the right tree. Both trees are left empty, and
+	 * the new tree draws its priorities from a generator split off the left tree's.
+	 *
+	 * @param <E>   The type of elements stored in the trees.
+	 * @param left  The tree holding the smaller elements; left empty.
+	 * @param right The tree holding the larger elements; left empty.
+	 * @return A new tree holding the elements of both trees.
+	 * @throws NullPointerException     if either tree is null.
+	 * @throws IllegalArgumentException if the trees overlap, or are the same tree.
+	 */
+	public static <E extends Comparable<? super E>> TreapBSTree<E> merge(TreapBSTree<E> left, TreapBSTree<E> right)
+			throws NullPointerException, IllegalArgumentException {
+		if (left == null || right == null)
+			throw new NullPointerException("Cannot merge a null tree");
+		if (left == right && left.root != null)
+			throw new IllegalArgumentException("Cannot merge a tree with itself");
+		if (left.root != null && right.root != null
+				&& extreme(left.root, false).getElement().compareTo(extreme(right.root, true).getElement()) >= 0)
+			throw new IllegalArgumentException("Every element of the left tree must be smaller than the right tree");
+		TreapBSTree<E> merged = new TreapBSTree<>(left.random.split());
+		merged.root = merge(left.root, right.root);
+		left.root = null;
+		right.root = null;
+		return merged;
+	}
+
+	/**
+	 * Returns the root node of the tree. Its subtrees must not be relinked from outside.
+	 *
+	 * @return The root node of the tree, null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> getRoot() {
+		return root;
+	}
+
+	/**
+	 * Returns the height of the tree.
+	 *
+	 * @return The height of the tree.
+	 */
+	@Override
+	public int getHeight() {
+		return (root == null) ? 0 : root.getHeight();
+	}
+
+	/**
+	 * Returns the number of elements in the tree, from the count cached in the root.
+	 *
+	 * @return The number of elements in the tree.
+	 */
+	@Override
+	public int size() {
+		return (root == null) ? 0 : root.getNumberNodes();
+	}
+
+	/**
+	 * Checks if the tree is empty.
+	 *
+	 * @return true if the tree is empty, false otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+	 * Clears the tree, removing all elements.
+	 */
+	@Override
+	public void clear() {
+		root = null;
+	}
+
+	/**
+	 * Checks if the tree contains the specified element.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return true if the tree contains the element, false otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean contains(E entry) throws NullPointerException {
+		return search(entry) != null;
+	}
+
+	/**
+	 * Searches for the specified element in the tree.
+	 *
+	 * @param entry The element to search for in the tree.
+	 * @return The node containing the specified element if found, null otherwise.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public BSTreeNode<E> search(E entry) throws NullPointerException {
+		if (entry == null)
+			throw new NullPointerException("Cannot search for a null entry in the tree");
+		BSTreeNode<E> current = root;
+		while (current != null) {
+			int compare = entry.compareTo(current.getElement());
+			if (compare == 0)
+				return current;
+			current = (compare < 0) ? current.getLeft() : current.getRight();
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the specified element to the tree. The new node goes where its priority puts it on the
+	 * search path, and the subtree it displaces is split around it.
+	 *
+	 * @param newEntry The element to add to the tree.
+	 * @return true if the element is added successfully, false if it already exists in the tree.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	@Override
+	public boolean add(E newEntry) throws NullPointerException {
+		if (newEntry == null)
+			throw new NullPointerException("Cannot add null entry to the tree");
+		TreapNode<E> node = new TreapNode<>(newEntry, random.nextInt());
+		ArrayStack<BSTreeNode<E>> path = pathStack();
+		BSTreeNode<E> current = root;
+		while (current != null && priorityOf(current) > node.priority) {
+			int compare = newEntry.compareTo(current.getElement());
+			if (compare == 0) {
+				path.clear();
+				return false; // Duplicate entry, not added
+			}
+			path.push(current);
+			current = (compare < 0) ? current.getLeft() : current.getRight();
+		}
+		BSTreeJoins.Split<E> halves = split(current, newEntry);
+		if (halves.match != null) {
+			// The element was below the insertion point: merge the pieces back in its place
+			relink(path, current, merge(halves.left, merge(halves.match, halves.right)));
+			return false; // Duplicate entry, not added
+		}
+		node.setLeft(halves.left);
+		node.setRight(halves.right);
+		relink(path, current, node);
+		return true;
+	}
+
+	/**
+	 * Removes and returns the node with the smallest element from the tree.
+	 *
+	 * @return The node with the smallest element, detached, or null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> removeMin() {
+		return removeExtreme(true);
+	}
+
+	/**
+	 * Removes and returns the node with the largest element from the tree.
+	 *
+	 * @return The node with the largest element, detached, or null if the tree is empty.
+	 */
+	@Override
+	public BSTreeNode<E> removeMax() {
+		return removeExtreme(false);
+	}
+
+	private BSTreeNode<E> removeExtreme(boolean smallest) {
+		if (root == null)
+			return null;
+		ArrayStack<BSTreeNode<E>> path = pathStack();
+		BSTreeNode<E> current = root;
+		BSTreeNode<E> next;
+		while ((next = smallest ? current.getLeft() : current.getRight()) != null) {
+			path.push(current);
+			current = next;
+		}
+		// The other child has lower priorities than the removed node, so it takes its place as it is
+		relink(path, current, smallest ? current.getRight() : current.getLeft());
+		if (smallest)
+			current.setRight(null);
+		else
+			current.setLeft(null);
+		return current;
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in inorder.
+	 *
+	 * @return An iterator for inorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> inorderIterator() {
+		return new BSTreeIterators.InorderIterator<>(root);
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in preorder.
+	 *
+	 * @return An iterator for preorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> preorderIterator() {
+		return new BSTreeIterators.PreorderIterator<>(root);
+	}
+
+	/**
+	 * Returns an iterator for traversing the tree in postorder.
+	 *
+	 * @return An iterator for postorder traversal of the tree.
+	 */
+	@Override
+	public Iterator<E> postorderIterator() {
+		return new BSTreeIterators.PostorderIterator<>(root);
+	}
+
+	private ArrayStack<BSTreeNode<E>> pathStack() {
+		if (path == null)
+			path = new ArrayStack<>(BSTreeIterators.stackCapacity(root));
+		return path;
+	}
+
+	/**
+	 * Puts the replacement where the old subtree hung below the path, then refreshes the cached heights
+	 * and counts of the path bottom up. Leaves the path empty. An empty old subtree is told apart by the
+	 * replacement's element.
+	 */
+	private void relink(ArrayStack<BSTreeNode<E>> path, BSTreeNode<E> old, BSTreeNode<E> replacement) {
+		if (path.isEmpty()) {
+			root = replacement;
+			return;
+		}
+		BSTreeNode<E> parent = path.peek();
+		boolean left = (old != null) ? parent.getLeft() == old : replacement.getElement().compareTo(parent.getElement()) < 0;
+		if (left)
+			parent.setLeft(replacement);
+		else
+			parent.setRight(replacement);
+		while (!path.isEmpty())
+			path.pop().update();
+	}
+
+	/**
+	 * Cuts a treap into the elements below the key and those above it, and the node holding the key
+	 * detached, if any. Each half keeps heap order, since nodes are only ever relinked below a node
+	 * that was above them.
+	 */
+	private static <E extends Comparable<? super E>> BSTreeJoins.Split<E> split(BSTreeNode<E> node, E key) {
+		if (node == null)
+			return new BSTreeJoins.Split<>(null, null, null);
+		int compare = key.compareTo(node.getElement());
+		if (compare == 0) {
+			BSTreeNode<E> left = node.getLeft(), right = node.getRight();
+			node.setLeft(null);
+			node.setRight(null);
+			return new BSTreeJoins.Split<>(left, node, right);
+		}
+		if (compare < 0) {
+			BSTreeJoins.Split<E> below = split(node.getLeft(), key);
+			node.setLeft(below.right);
+			return new BSTreeJoins.Split<>(below.left, below.match, node);
+		}
+		BSTreeJoins.Split<E> above = split(node.getRight(), key);
+		node.setRight(above.left);
+		return new BSTreeJoins.Split<>(node, above.match, above.right);
+	}
+
+	/**
+	 * Links two treaps whose elements are all smaller in the left one, by walking down the right spine
+	 * of the left treap and the left spine of the right one in priority order.
+	 */
+	private static <E> BSTreeNode<E> merge(BSTreeNode<E> left, BSTreeNode<E> right) {
+		if (left == null)
+			return right;
+		if (right == null)
+			return left;
+		if (priorityOf(left) > priorityOf(right)) {
+			left.setRight(merge(left.getRight(), right));
+			return left;
+		}
+		right.setLeft(merge(left, right.getLeft()));
+		return right;
+	}
+
+	private static <E> BSTreeNode<E> extreme(BSTreeNode<E> node, boolean smallest) {
+		while ((smallest ? node.getLeft() : node.getRight()) != null)
+			node = smallest ? node.getLeft() : node.getRight();
+		return node;
+	}
+
+	private static int priorityOf(BSTreeNode<?> node) {
+		return ((TreapNode<?>) node).priority;
+	}
+
+	/**
+	 * Writes the elements of the tree in ascending order, preceded by their number. The priorities are
+	 * not written.
+	 *
+	 * @param out The stream to write to.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size());
+		Iterator<E> elements = inorderIterator();
+		while (elements.hasNext())
+			out.writeObject(elements.next());
+	}
+
+	/**
+	 * Reads the elements written by {@link #writeObject} into a tree with fresh, randomly seeded
+	 * priorities.
+	 *
+	 * @param in The stream to read from.
+	 * @throws IOException            if an I/O error occurs.
+	 * @throws ClassNotFoundException if the class of an element cannot be found.
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int count = in.readInt();
+		if (count < 0)
+			throw new InvalidObjectException("Negative tree size: " + count);
+		random = new SplittableRandom();
+		for (int i = 0; i < count; i++)
+			add((E) in.readObject());
+	}
+
+	/**
+	 * A tree node that also holds the random priority fixing its depth: no node has a higher priority
+	 * than its parent.
+	 */
+	static class TreapNode<E> extends BSTreeNode<E> {
+		final int priority;
+
+		TreapNode(E element, int priority) {
+			super(element, null, null);
+			this.priority = priority;
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class TreapBSTreeTests {
+
+	@Test
+	void testAgainstTreeSet()
+	{
+		TreapBSTree<Integer> tree = new TreapBSTree<>(25);
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(25);
+		for (int i = 0; i < 50_000; i++) {
+			int key = random.nextInt(5000);
+			int op = random.nextInt(10);
+			if (op < 6)
+				assertEquals(expected.add(key), tree.add(key));
+			else if (op < 8)
+				assertEquals(expected.contains(key), tree.contains(key));
+			else if (op < 9)
+				assertEquals(expected.pollFirst(), elementOf(tree.removeMin()));
+			else
+				assertEquals(expected.pollLast(), elementOf(tree.removeMax()));
+			assertEquals(expected.size(), tree.size());
+		}
+		assertEquals(expected.toString(), elements(tree.inorderIterator()));
+		assertSubtree(tree.getRoot(), null, null);
+		// Sorted input would make a plain tree a chain; random priorities keep it near 3 log2 n
+		TreapBSTree<Integer> sorted = new TreapBSTree<>(1);
+		for (int i = 0; i < 10_000; i++)
+			sorted.add(i);
+		assertTrue(sorted.getHeight() < 50, "A treap should stay shallow on sorted input");
+	}
+
+	@Test
+	void testSplitAndMerge()
+	{
+		Random random = new Random(5);
+		for (int round = 0; round < 50; round++) {
+			TreapBSTree<Integer> tree = new TreapBSTree<>(round);
+			TreeSet<Integer> expected = new TreeSet<>();
+			for (int i = random.nextInt(500); i > 0; i--) {
+				int key = random.nextInt(1000);
+				tree.add(key);
+				expected.add(key);
+			}
+			int key = random.nextInt(1100) - 50;
+			TreapBSTree<Integer> upper = tree.split(key);
+			assertEquals(expected.headSet(key).toString(), elements(tree.inorderIterator()));
+			assertEquals(expected.tailSet(key).toString(), elements(upper.inorderIterator()));
+			assertSubtree(tree.getRoot(), null, null);
+			assertSubtree(upper.getRoot(), null, null);
+
+			TreapBSTree<Integer> merged = TreapBSTree.merge(tree, upper);
+			assertTrue(tree.isEmpty(), "Merging should consume the left tree");
+			assertTrue(upper.isEmpty(), "Merging should consume the right tree");
+			assertEquals(expected.size(), merged.size());
+			assertEquals(expected.toString(), elements(merged.inorderIterator()));
+			assertSubtree(merged.getRoot(), null, null);
+			assertTrue(merged.add(-1), "A merged tree should accept new elements");
+		}
+	}
+
+	@Test
+	void testMergeRejectsOverlap()
+	{
+		TreapBSTree<Integer> low = new TreapBSTree<>(1);
+		TreapBSTree<Integer> high = new TreapBSTree<>(2);
+		for (int i = 0; i <= 10; i++)
+			low.add(i);
+		for (int i = 10; i <= 20; i++)
+			high.add(i);
+		assertThrows(IllegalArgumentException.class, () -> TreapBSTree.merge(low, high), "Trees sharing an element overlap");
+		assertThrows(IllegalArgumentException.class, () -> TreapBSTree.merge(high, low), "The left tree must hold the smaller elements");
+		assertThrows(IllegalArgumentException.class, () -> TreapBSTree.merge(low, low));
+		assertThrows(NullPointerException.class, () -> TreapBSTree.merge(low, null));
+		assertEquals(11, low.size(), "A rejected merge should leave the left tree intact");
+		assertEquals(11, high.size(), "A rejected merge should leave the right tree intact");
+
+		high.removeMin();
+		assertEquals(21, TreapBSTree.merge(low, high).size());
+		TreapBSTree<Integer> empty = new TreapBSTree<>();
+		assertTrue(TreapBSTree.merge(empty, empty).isEmpty(), "An empty tree can be merged with itself");
+	}
+
+	@Test
+	void testSeedFixesShape()
+	{
+		Random random = new Random(9);
+		int[] keys = new int[2000];
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = random.nextInt(10_000);
+		TreapBSTree<Integer> first = new TreapBSTree<>(42);
+		TreapBSTree<Integer> second = new TreapBSTree<>(42);
+		TreapBSTree<Integer> other = new TreapBSTree<>(43);
+		for (int key : keys) {
+			first.add(key);
+			second.add(key);
+			other.add(key);
+		}
+		assertEquals(elements(first.preorderIterator()), elements(second.preorderIterator()), "The same seed should build the same shape");
+		assertNotEquals(elements(first.preorderIterator()), elements(other.preorderIterator()), "Another seed should build another shape");
+
+		// Trees split off seeded trees draw from split generators, which are seeded too
+		TreapBSTree<Integer> firstUpper = first.split(5000);
+		TreapBSTree<Integer> secondUpper = second.split(5000);
+		for (int i = 0; i < 500; i++) {
+			firstUpper.add(5000 + 2 * i + 1);
+			secondUpper.add(5000 + 2 * i + 1);
+		}
+		assertEquals(elements(firstUpper.preorderIterator()), elements(secondUpper.preorderIterator()));
+		assertEquals(elements(TreapBSTree.merge(first, firstUpper).preorderIterator()),
+				elements(TreapBSTree.merge(second, secondUpper).preorderIterator()));
+	}
+
+	/**
+	 * Checks search order and the cached height and count at every node of the subtree, whose elements
+	 * must lie strictly between the bounds, and returns its height.
+	 */
+	private static int assertSubtree(BSTreeNode<Integer> node, Integer low, Integer high)
+	{
+		if (node == null)
+			return -1;
+		int element = node.getElement();
+		assertTrue((low == null || low < element) && (high == null || element < high), "Out of order at " + element);
+		int left = assertSubtree(node.getLeft(), low, element);
+		int right = assertSubtree(node.getRight(), element, high);
+		assertEquals(Math.max(left, right) + 1, node.getHeight(), "Stale height at " + element);
+		int count = 1 + ((node.getLeft() == null) ? 0 : node.getLeft().getNumberNodes())
+				+ ((node.getRight() == null) ? 0 : node.getRight().getNumberNodes());
+		assertEquals(count, node.getNumberNodes(), "Stale count at " + element);
+		return node.getHeight();
+	}
+
+	private static Integer elementOf(BSTreeNode<Integer> node) {
+		return (node == null) ? null : node.getElement();
+	}
+
+	private static String elements(Iterator<Integer> iterator) {
+		List<Integer> elements = new ArrayList<>();
+		while (iterator.hasNext())
+			elements.add(iterator.next());
+		return elements.toString();
+	}
+}
@@ -1,32 +1,282 @@
 package utilities;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The `myBSTree` class represents a binary search tree implementation. It stores elements of type E
  * and provides methods for adding, removing, searching, and traversing elements within the tree.
+ * A tree constructed with {@code balanced} set keeps itself height balanced (AVL), so sorted input
+ * no longer degrades it into a linked list.
+ * <p>
+ * {@link #remove(Comparable)} unlinks nodes at once by default. With a compaction ratio set, it marks
+ * them as tombstones instead: searches, iterators and {@link #size()} skip them, and the tree is
+ * rebuilt without them once they make up more than that fraction of its nodes.
  *
  * @param <E> The type of elements stored in the binary search tree.
  */
 public class myBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
-	private BSTreeNode<E> root;
+	private static final long serialVersionUID = 7702741525018376105L;
+
+	// The nodes are not serialized; writeObject stores the elements in order instead
+	private transient BSTreeNode<E> root;
 	private int size;
+	private final boolean balanced;
+	// Cached extremes, so peekMin()/peekMax() never walk the tree
+	private transient BSTreeNode<E> min, max;
+	// Path from the root to the extreme being drained, kept between consecutive removals on one side.
+	// The nodes above the parent of the last removed node may hold stale heights and counts until
+	// settle() refreshes them.
+	private transient ArrayStack<BSTreeNode<E>> drainPath;
+	private transient boolean drainFromMin;
+	private transient boolean drainStale;
+	// Scratch stack for the root-to-leaf path of add and balanced removals, reused between calls
+	private transient ArrayStack<BSTreeNode<E>> path;
+	// Removed nodes still linked in as tombstones; 0 whenever compactionRatio is 0. The cached
+	// extremes are never tombstones.
+	private transient int tombstones;
+	// Set once a plain tree breaks the AVL rule at some node since it was last built or combined. The
+	// joins assume AVL inputs, so ensureShallow() rebuilds such a tree first.
+	private transient boolean skewed;
+	private double compactionRatio;
 
 	/**
 	 * Constructs an empty binary search tree.
 	 */
 	public myBSTree() {
+		this(false);
+	}
+
+	/**
+	 * Constructs an empty binary search tree, optionally self-balancing.
+	 *
+	 * @param balanced true to rebalance (AVL) on every insertion and removal, false for a plain tree.
+	 */
+	public myBSTree(boolean balanced) {
 		this.root = null;
 		this.size = 0;
+		this.balanced = balanced;
+	}
+
+	/**
+	 * Creates an empty self-balancing (AVL) binary search tree.
+	 *
+	 * @param <E> The type of elements stored in the tree.
+	 * @return An empty tree whose height stays logarithmic in its size.
+	 */
+	public static <E extends Comparable<? super E>> myBSTree<E> balanced() {
+		return new myBSTree<>(true);
+	}
+
+	/**
+	 * Returns whether this tree rebalances itself on insertion and removal.
+	 *
+	 * @return true if the tree is self-balancing, false otherwise.
+	 */
+	public boolean isBalanced() {
+		return balanced;
+	}
+
+	/**
+	 * Builds a perfectly balanced binary search tree from elements in ascending order, in linear time
+	 * and with one node allocation per element. Input that turns out not to be sorted and free of
+	 * duplicates is sorted and deduplicated first, which costs O(n log n).
+	 *
+	 * @param <E>      The type of elements stored in the tree.
+	 * @param elements The elements to store, ideally sorted and without duplicates.
+	 * @return A new tree holding the distinct elements.
+	 * @throws NullPointerException if the array or any of its elements is null.
+	 */
+	public static <E extends Comparable<? super E>> myBSTree<E> fromSorted(E[] elements) throws NullPointerException {
+		if (elements == null)
+			throw new NullPointerException("Cannot build a tree from a null array");
+		myBSTree<E> tree = new myBSTree<>();
+		tree.buildFrom(elements.clone(), elements.length);
+		return tree;
+	}
+
+	/**
+	 * Builds a perfectly balanced binary search tree from the elements of a list in ascending order.
+	 *
+	 * @param <E>      The type of elements stored in the tree.
+	 * @param elements The list of elements to store, ideally sorted and without duplicates.
+	 * @return A new tree holding the distinct elements.
+	 * @throws NullPointerException if the list or any of its elements is null.
+	 * @see #fromSorted(Comparable[])
+	 */
+	public static <E extends Comparable<? super E>> myBSTree<E> fromSorted(ListADT<E> elements) throws NullPointerException {
+		if (elements == null)
+			throw new NullPointerException("Cannot build a tree from a null list");
+		Object[] array = elements.toArray();
+		myBSTree<E> tree = new myBSTree<>();
+		tree.buildFrom(array, array.length);
+		return tree;
+	}
+
+	/**
+	 * Builds a perfectly balanced binary search tree from the elements an iterator returns in
+	 * ascending order. The iterator is drained.
+	 *
+	 * @param <E>      The type of elements stored in the tree.
+	 * @param elements The iterator over the elements to store, ideally sorted and without duplicates.
+	 * @return A new tree holding the distinct elements.
+	 * @throws NullPointerException if the iterator or any of its elements is null.
+	 * @see #fromSorted(Comparable[])
+	 */
+	public static <E extends Comparable<? super E>> myBSTree<E> fromSorted(Iterator<? extends E> elements) throws NullPointerException {
+		if (elements == null)
+			throw new NullPointerException("Cannot build a tree from a null iterator");
+		Object[] array = new Object[16];
+		int count = 0;
+		while (elements.hasNext()) {
+			if (count == array.length)
+				array = Arrays.copyOf(array, count * 2);
+			array[count++] = elements.next();
+		}
+		myBSTree<E> tree = new myBSTree<>();
+		tree.buildFrom(array, count);
+		return tree;
+	}
+
+	/**
+	 * Builds a perfectly balanced tree over the first count slots of the array, in the given mode. A
+	 * perfectly balanced tree already satisfies the AVL invariant, so no rebalancing is needed.
+	 *
+	 * @param elements The elements to store; owned by this call.
+	 * @param count    The number of slots in use.
+	 * @param balanced true for a self-balancing tree, false for a plain tree.
+	 * @return A new tree holding the distinct elements.
+	 * @throws NullPointerException if any of the elements is null.
+	 */
+	static <E extends Comparable<? super E>> myBSTree<E> build(Object[] elements, int count, boolean balanced) throws NullPointerException {
+		myBSTree<E> tree = new myBSTree<>(balanced);
+		tree.buildFrom(elements, count);
+		return tree;
+	}
+
+	/**
+	 * Replaces the contents of this tree with a perfectly balanced tree over the first count slots of
+	 * the array. The array is sorted and deduplicated in place if it is not already strictly ascending.
+	 *
+	 * @param elements The elements to store; owned by this call.
+	 * @param count    The number of slots in use.
+	 * @throws NullPointerException if any of the elements is null.
+	 */
+	@SuppressWarnings("unchecked")
+	private void buildFrom(Object[] elements, int count) throws NullPointerException {
+		boolean ascending = true;
+		for (int i = 0; i < count; i++) {
+			if (elements[i] == null)
+				throw new NullPointerException("Cannot add null entry to the tree");
+			if (i > 0 && ((E) elements[i - 1]).compareTo((E) elements[i]) >= 0)
+				ascending = false;
+		}
+		if (!ascending) {
+			Arrays.sort(elements, 0, count);
+			int distinct = 0;
+			for (int i = 0; i < count; i++)
+				if (distinct == 0 || ((E) elements[distinct - 1]).compareTo((E) elements[i]) != 0)
+					elements[distinct++] = elements[i];
+			count = distinct;
+		}
+		root = buildBalanced(elements, 0, count - 1);
+		size = count;
+		tombstones = 0;
+		skewed = false;
+		drainPath = null;
+		drainStale = false;
+		min = extreme(root, true);
+		max = extreme(root, false);
+	}
+
+	/**
+	 * Links the sorted slots low..high into a perfectly balanced subtree, children before parents so
+	 * each node computes its height and count once. Recursion depth is logarithmic in the range.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> BSTreeNode<E> buildBalanced(Object[] elements, int low, int high) {
+		if (low > high)
+			return null;
+		int middle = (low + high) >>> 1;
+		BSTreeNode<E> left = buildBalanced(elements, low, middle - 1);
+		BSTreeNode<E> right = buildBalanced(elements, middle + 1, high);
+		return new BSTreeNode<>((E) elements[middle], left, right);
+	}
+
+	/**
+	 * Writes the size and mode of the tree followed by its elements in ascending order. Nothing is
+	 * written per node, and the walk uses no recursion, so any tree shape can be written.
+	 *
+	 * @param out The stream to write to.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		Iterator<E> elements = inorderIterator();
+		while (elements.hasNext())
+			out.writeObject(elements.next());
+	}
+
+	/**
+	 * Reads the elements written by {@link #writeObject} and links them into a perfectly balanced tree
+	 * in linear time, whatever shape the written tree had.
+	 *
+	 * @param in The stream to read from.
+	 * @throws IOException            if an I/O error occurs.
+	 * @throws ClassNotFoundException if the class of an element cannot be found.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		if (size < 0)
+			throw new InvalidObjectException("Negative tree size: " + size);
+		Object[] elements = new Object[size];
+		for (int i = 0; i < elements.length; i++)
+			elements[i] = in.readObject();
+		buildFrom(elements, elements.length);
 	}
 
 	/**
-	 * Returns the root node of the binary search tree.
+	 * Returns a read-only copy of this tree laid out in a contiguous array, for read-heavy phases where
+	 * the tree no longer changes. Later changes to this tree are not reflected in the copy.
+	 *
+	 * @return A frozen copy of the elements of this tree.
+	 */
+	public FrozenBSTree<E> freeze() {
+		Object[] sorted = new Object[size];
+		Iterator<E> source = inorderIterator();
+		for (int i = 0; i < sorted.length; i++)
+			sorted[i] = source.next();
+		return new FrozenBSTree<>(sorted, sorted.length);
+	}
+
+	/**
+	 * Returns the root node of the binary search tree. The nodes reachable from it may include
+	 * tombstones, which are marked {@link BSTreeNode#isDeleted() deleted}.
 	 *
 	 * @return The root node of the binary search tree.
 	 */
 	@Override
 	public BSTreeNode<E> getRoot() {
+		settle();
+		return root;
+	}
+
+	/**
+	 * Returns the root node as it is, without settling the cached fields first, so that it writes
+	 * nothing. For readers that only follow links and may run alongside other readers.
+	 *
+	 * @return The root node of the binary search tree.
+	 */
+	BSTreeNode<E> rootNode() {
 		return root;
 	}
 
@@ -37,6 +287,7 @@ public class myBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
 	 */
 	@Override
 	public int getHeight() {
+		settle();
 		if (root == null)
 			return 0;
 		return root.getHeight();
@@ -69,6 +320,11 @@ public class myBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
 	public void clear() {
 		root = null;
 		size = 0;
+		tombstones = 0;
+		skewed = false;
+		min = max = null;
+		drainPath = null;
+		drainStale = false;
 	}
 
 	/**
@@ -92,7 +348,29 @@ public class myBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
 	 */
 	@Override
 	public BSTreeNode<E> search(E entry) throws NullPointerException {
-		return searchRecursively(root, entry);
+		if (entry == null)
+			throw new NullPointerException("Cannot search for a null entry in the tree");
+		settle();
+		BSTreeNode<E> current = root;
+		while (current != null) {
+			int compare = entry.compareTo(current.getElement());
+			if (compare == 0)
+				return current.isDeleted() ? null : current;
+			current = (compare < 0) ? current.getLeft() : current.getRight();
+		}
+		return null;
+	}
+
+	/**
+	 * Recursive counterpart of {@link #search(Comparable)}, kept for benchmarking. Uses one stack
+	 * frame per level, so it can overflow the thread stack on a degenerate tree.
+	 *
+	 * @param entry The element to search for in the binary search tree.
+	 * @return The node containing the specified element if found, null otherwise.
+	 */
+	BSTreeNode<E> searchRecursively(E entry) {
+		BSTreeNode<E> found = searchRecursively(root, entry);
+		return (found == null || found.isDeleted()) ? null : found;
 	}
 
 	private BSTreeNode<E> searchRecursively(BSTreeNode<E> node, E entry) {
@@ -116,82 +394,899 @@ public class myBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
 	public boolean add(E newEntry) throws NullPointerException {
 		if (newEntry == null)
 			throw new NullPointerException("Cannot add null entry to the tree");
+		settle();
+		BSTreeNode<E> node = new BSTreeNode<>(newEntry, null, null);
 		if (root == null) {
-			root = new BSTreeNode<>(newEntry, null, null);
+			root = node;
 			size++;
+			trackExtremes(node);
 			return true;
 		}
-		return addRecursively(root, newEntry);
-	}
-
-	private boolean addRecursively(BSTreeNode<E> node, E newEntry) {
-		int compare = newEntry.compareTo(node.getElement());
-		if (compare < 0) {
-			if (node.getLeft() == null) {
-				node.setLeft(new BSTreeNode<>(newEntry, null, null));
+		// Walk down to the insertion point, remembering the path for the way back up
+		ArrayStack<BSTreeNode<E>> path = pathStack();
+		BSTreeNode<E> current = root;
+		while (true) {
+			int compare = newEntry.compareTo(current.getElement());
+			if (compare == 0 && current.isDeleted()) {
+				// Revive the tombstone in place; it lies between the extremes, which are live
+				current.setDeleted(false);
+				refreshPath(path);
 				size++;
+				tombstones--;
 				return true;
-			} else {
-				return addRecursively(node.getLeft(), newEntry);
 			}
-		} else if (compare > 0) {
-			if (node.getRight() == null) {
-				node.setRight(new BSTreeNode<>(newEntry, null, null));
-				size++;
-				return true;
-			} else {
-				return addRecursively(node.getRight(), newEntry);
+			if (compare == 0) {
+				path.clear();
+				return false; // Duplicate entry, not added
+			}
+			path.push(current);
+			BSTreeNode<E> next = (compare < 0) ? current.getLeft() : current.getRight();
+			if (next == null) {
+				if (compare < 0)
+					current.setLeft(node);
+				else
+					current.setRight(node);
+				break;
 			}
+			current = next;
+		}
+		size++;
+		trackExtremes(node);
+		// Refresh (and rebalance) every ancestor bottom up, relinking rotated subtrees
+		BSTreeNode<E> child = path.pop();
+		BSTreeNode<E> subtree = rebalance(child);
+		while (!path.isEmpty()) {
+			BSTreeNode<E> parent = path.pop();
+			if (parent.getLeft() == child)
+				parent.setLeft(subtree);
+			else
+				parent.setRight(subtree);
+			child = parent;
+			subtree = rebalance(parent);
 		}
-		return false; // Duplicate entry, not added
+		root = subtree;
+		return true;
 	}
 
 	/**
-	 * Removes and returns the node with the smallest element from the binary search tree.
+	 * Updates the cached extremes after inserting the node. A new extreme on the side being drained
+	 * hangs directly below the old one in a plain tree, so it simply extends the drain path.
+	 */
+	private void trackExtremes(BSTreeNode<E> node) {
+		if (min == null || node.getElement().compareTo(min.getElement()) < 0) {
+			min = node;
+			if (drainPath != null && drainFromMin)
+				drainPath.push(node);
+		}
+		if (max == null || node.getElement().compareTo(max.getElement()) > 0) {
+			max = node;
+			if (drainPath != null && !drainFromMin)
+				drainPath.push(node);
+		}
+	}
+
+	/**
+	 * Recursive counterpart of {@link #add(Comparable)}, kept for benchmarking. Does the same
+	 * bookkeeping as the iterative version, but uses one stack frame per level, so it can overflow the
+	 * thread stack on a degenerate tree.
+	 *
+	 * @param newEntry The element to add to the binary search tree.
+	 * @return true if the element is added successfully, false if it already exists in the tree.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	boolean addRecursively(E newEntry) throws NullPointerException {
+		if (newEntry == null)
+			throw new NullPointerException("Cannot add null entry to the tree");
+		settle();
+		BSTreeNode<E> node = new BSTreeNode<>(newEntry, null, null);
+		if (root == null) {
+			root = node;
+			size++;
+			trackExtremes(node);
+			return true;
+		}
+		boolean added = addRecursively(root, node);
+		if (added)
+			root = rebalance(root);
+		return added;
+	}
+
+	private boolean addRecursively(BSTreeNode<E> current, BSTreeNode<E> node) {
+		int compare = node.getElement().compareTo(current.getElement());
+		if (compare == 0) {
+			if (!current.isDeleted())
+				return false; // Duplicate entry, not added
+			current.setDeleted(false);
+			size++;
+			tombstones--;
+			return true;
+		}
+		BSTreeNode<E> child = childOf(current, compare < 0);
+		if (child == null) {
+			setChild(current, compare < 0, node);
+			size++;
+			trackExtremes(node);
+			return true;
+		}
+		if (!addRecursively(child, node))
+			return false;
+		setChild(current, compare < 0, rebalance(child));
+		return true;
+	}
+
+	/**
+	 * Removes and returns the node with the smallest element from the binary search tree. In a plain
+	 * tree, consecutive calls pick up where the previous one left off, so draining the whole tree from
+	 * this end costs O(n) in total; in a balanced tree each call costs O(log n).
 	 *
 	 * @return The node with the smallest element if found, null if the tree is empty.
 	 */
 	@Override
 	public BSTreeNode<E> removeMin() {
-		if (root == null)
-			return null;
-		BSTreeNode<E> parent = null;
-		BSTreeNode<E> current = root;
-		while (current.getLeft() != null) {
-			parent = current;
-			current = current.getLeft();
-		}
-		if (parent == null)
-			root = current.getRight();
-		else
-			parent.setLeft(current.getRight());
-		size--;
-		return current;
+		return removeExtreme(true);
 	}
 
 	/**
-	 * Removes and returns the node with the largest element from the binary search tree.
+	 * Removes and returns the node with the largest element from the binary search tree. In a plain
+	 * tree, consecutive calls pick up where the previous one left off, so draining the whole tree from
+	 * this end costs O(n) in total; in a balanced tree each call costs O(log n).
 	 *
 	 * @return The node with the largest element if found, null if the tree is empty.
 	 */
 	@Override
 	public BSTreeNode<E> removeMax() {
+		return removeExtreme(false);
+	}
+
+	/**
+	 * Returns the node with the smallest element without removing it, in constant time. The cached
+	 * heights and counts left stale by a run of removals are not refreshed, so peeking between
+	 * removals keeps them amortized O(1).
+	 *
+	 * @return The node with the smallest element, null if the tree is empty.
+	 */
+	public BSTreeNode<E> peekMin() {
+		return min;
+	}
+
+	/**
+	 * Returns the node with the largest element without removing it, in constant time.
+	 *
+	 * @return The node with the largest element, null if the tree is empty.
+	 */
+	public BSTreeNode<E> peekMax() {
+		return max;
+	}
+
+	private BSTreeNode<E> removeExtreme(boolean smallest) {
 		if (root == null)
 			return null;
-		BSTreeNode<E> parent = null;
+		BSTreeNode<E> removed = unlinkExtreme(smallest);
+		size--;
+		// Purge the tombstones this uncovers at the same end, so the cached extremes stay live
+		while (tombstones > 0 && root != null && (smallest ? min : max).isDeleted()) {
+			unlinkExtreme(smallest);
+			tombstones--;
+		}
+		if (root == null)
+			min = max = null;
+		setChild(removed, !smallest, null);
+		return removed;
+	}
+
+	private BSTreeNode<E> unlinkExtreme(boolean smallest) {
+		return balanced ? spliceExtreme(smallest) : drainExtreme(smallest);
+	}
+
+	/**
+	 * Removes the specified element from the binary search tree. By default the node is unlinked at
+	 * once, rebalancing on the way up in a balanced tree; with a compaction ratio set, it is only
+	 * marked as a tombstone, unless it holds the smallest or largest element. Either way this takes
+	 * one walk from the root.
+	 *
+	 * @param entry The element to remove.
+	 * @return true if the element was removed, false if it was not in the tree.
+	 * @throws NullPointerException if the specified element is null.
+	 * @see #setCompactionRatio(double)
+	 */
+	public boolean remove(E entry) throws NullPointerException {
+		if (entry == null)
+			throw new NullPointerException("Cannot remove a null entry from the tree");
+		settle();
+		ArrayStack<BSTreeNode<E>> path = pathStack();
+		BSTreeNode<E> current = root;
+		while (current != null) {
+			int compare = entry.compareTo(current.getElement());
+			if (compare == 0)
+				break;
+			path.push(current);
+			current = (compare < 0) ? current.getLeft() : current.getRight();
+		}
+		if (current == null || current.isDeleted()) {
+			path.clear();
+			return false;
+		}
+		if (current == min || current == max) {
+			path.clear();
+			removeExtreme(current == min);
+		} else if (compactionRatio > 0) {
+			current.setDeleted(true);
+			refreshPath(path);
+			size--;
+			tombstones++;
+			if (tombstones > compactionRatio * (size + tombstones))
+				compact();
+		} else {
+			unlink(current, path);
+			size--;
+		}
+		return true;
+	}
+
+	/**
+	 * Unlinks a node below the path from the root. A node with two children takes its successor's
+	 * element, and the successor, which has no left child, is unlinked instead.
+	 */
+	private void unlink(BSTreeNode<E> node, ArrayStack<BSTreeNode<E>> path) {
+		drainPath = null;
+		BSTreeNode<E> target = node;
+		if (node.getLeft() != null && node.getRight() != null) {
+			path.push(node);
+			target = node.getRight();
+			while (target.getLeft() != null) {
+				path.push(target);
+				target = target.getLeft();
+			}
+			node.setElement(target.getElement());
+			if (target == max)
+				max = node;
+		}
+		BSTreeNode<E> child = target;
+		BSTreeNode<E> subtree = (target.getLeft() != null) ? target.getLeft() : target.getRight();
+		while (!path.isEmpty()) {
+			BSTreeNode<E> parent = path.pop();
+			if (parent.getLeft() == child)
+				parent.setLeft(subtree);
+			else
+				parent.setRight(subtree);
+			child = parent;
+			subtree = rebalance(parent);
+		}
+		root = subtree;
+	}
+
+	/**
+	 * Refreshes the cached counts of the nodes on the path, deepest first, and empties it.
+	 */
+	private void refreshPath(ArrayStack<BSTreeNode<E>> path) {
+		while (!path.isEmpty())
+			path.pop().update();
+	}
+
+	/**
+	 * Sets how {@link #remove(Comparable)} treats removed nodes. At the default ratio of 0 they are
+	 * unlinked at once. Above 0 they are left in place as tombstones, so delete-heavy workloads do not
+	 * restructure the tree on every call, and the tree is compacted once tombstones make up more than
+	 * the given fraction of its nodes. Setting the ratio back to 0 compacts the tree at once.
+	 *
+	 * @param ratio The largest fraction of the nodes that may be tombstones, from 0 to 1.
+	 * @throws IllegalArgumentException if the ratio is not between 0 and 1.
+	 */
+	public void setCompactionRatio(double ratio) throws IllegalArgumentException {
+		if (!(ratio >= 0 && ratio <= 1))
+			throw new IllegalArgumentException("Compaction ratio must be between 0 and 1: " + ratio);
+		compactionRatio = ratio;
+		if (ratio == 0)
+			compact();
+	}
+
+	/**
+	 * Returns the fraction of tombstones at which the tree is compacted, 0 if removals are eager.
+	 *
+	 * @return The compaction ratio.
+	 */
+	public double getCompactionRatio() {
+		return compactionRatio;
+	}
+
+	/**
+	 * Rebuilds the tree perfectly balanced without its tombstones, in linear time. Does nothing if
+	 * there are none. The union, intersection, difference and range operations compact the tree first.
+	 */
+	public void compact() {
+		if (tombstones > 0)
+			rebuild();
+	}
+
+	private void rebuild() {
+		settle();
+		Object[] elements = new Object[size];
+		Iterator<E> source = inorderIterator();
+		for (int i = 0; i < elements.length; i++)
+			elements[i] = source.next();
+		buildFrom(elements, elements.length);
+	}
+
+	/**
+	 * Splices out the extreme node and refreshes (and rebalances) every ancestor bottom up.
+	 */
+	private BSTreeNode<E> spliceExtreme(boolean smallest) {
+		settle();
+		drainPath = null;
+		ArrayStack<BSTreeNode<E>> path = pathStack();
 		BSTreeNode<E> current = root;
-		while (current.getRight() != null) {
-			parent = current;
-			current = current.getRight();
+		while (childOf(current, smallest) != null) {
+			path.push(current);
+			current = childOf(current, smallest);
+		}
+		BSTreeNode<E> replacement = childOf(current, !smallest);
+		while (!path.isEmpty()) {
+			BSTreeNode<E> parent = path.pop();
+			setChild(parent, smallest, replacement);
+			replacement = rebalance(parent);
 		}
-		if (parent == null)
-			root = current.getLeft();
+		root = replacement;
+		if (smallest)
+			min = extreme(root, true);
 		else
-			parent.setRight(current.getLeft());
-		size--;
+			max = extreme(root, false);
 		return current;
 	}
 
+	/**
+	 * Splices out the extreme node of a plain tree using the drain path kept from the previous call.
+	 * Only the parent of the removed node is refreshed here; the ancestors above it are left for
+	 * settle(), so a run of removals from one end costs amortized O(1) each.
+	 */
+	private BSTreeNode<E> drainExtreme(boolean smallest) {
+		if (drainPath == null || drainFromMin != smallest) {
+			settle();
+			drainPath = new ArrayStack<>(BSTreeIterators.stackCapacity(root));
+			drainFromMin = smallest;
+			pushSpine(root, smallest);
+		}
+		BSTreeNode<E> removed = drainPath.pop();
+		BSTreeNode<E> replacement = childOf(removed, !smallest);
+		if (drainPath.isEmpty())
+			root = replacement;
+		else {
+			setChild(drainPath.peek(), smallest, replacement);
+			checkBalance(drainPath.peek());
+		}
+		drainStale = drainPath.size() > 1;
+		pushSpine(replacement, smallest);
+		BSTreeNode<E> next = drainPath.isEmpty() ? null : drainPath.peek();
+		if (smallest)
+			min = next;
+		else
+			max = next;
+		return removed;
+	}
+
+	private ArrayStack<BSTreeNode<E>> pathStack() {
+		if (path == null)
+			path = new ArrayStack<>(BSTreeIterators.stackCapacity(root));
+		return path;
+	}
+
+	private void pushSpine(BSTreeNode<E> node, boolean smallest) {
+		while (node != null) {
+			drainPath.push(node);
+			node = childOf(node, smallest);
+		}
+	}
+
+	/**
+	 * Refreshes the heights and counts left stale by a run of removals, deepest node first. Called
+	 * before anything reads or relies on the cached values.
+	 */
+	private void settle() {
+		if (!drainStale)
+			return;
+		Iterator<BSTreeNode<E>> nodes = drainPath.iterator();
+		while (nodes.hasNext()) {
+			BSTreeNode<E> node = nodes.next();
+			node.update();
+			checkBalance(node);
+		}
+		drainStale = false;
+	}
+
+	private static <E> BSTreeNode<E> extreme(BSTreeNode<E> node, boolean smallest) {
+		if (node == null)
+			return null;
+		while (childOf(node, smallest) != null)
+			node = childOf(node, smallest);
+		return node;
+	}
+
+	private static <E> BSTreeNode<E> childOf(BSTreeNode<E> node, boolean left) {
+		return left ? node.getLeft() : node.getRight();
+	}
+
+	private static <E> void setChild(BSTreeNode<E> node, boolean left, BSTreeNode<E> child) {
+		if (left)
+			node.setLeft(child);
+		else
+			node.setRight(child);
+	}
+
+	/**
+	 * Returns the k-th smallest element of the binary search tree, counting from zero. Runs in
+	 * time proportional to the height of the tree using the node counts kept in each node.
+	 *
+	 * @param k The zero-based rank of the element to return.
+	 * @return The element with exactly k smaller elements in the tree.
+	 * @throws IndexOutOfBoundsException if k is negative or not less than the size of the tree.
+	 */
+	public E select(int k) throws IndexOutOfBoundsException {
+		if (k < 0 || k >= size)
+			throw new IndexOutOfBoundsException("Rank is outside the tree '" + k + "'");
+		settle();
+		BSTreeNode<E> current = root;
+		while (true) {
+			int leftCount = countOf(current.getLeft());
+			if (k < leftCount) {
+				current = current.getLeft();
+			} else if (k == leftCount && !current.isDeleted()) {
+				return current.getElement();
+			} else {
+				k -= leftCount + (current.isDeleted() ? 0 : 1);
+				current = current.getRight();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of elements in the binary search tree that are strictly smaller than the
+	 * specified element. The element itself need not be in the tree. Runs in time proportional to
+	 * the height of the tree.
+	 *
+	 * @param entry The element to rank.
+	 * @return The number of elements smaller than the specified element.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	public int rank(E entry) throws NullPointerException {
+		if (entry == null)
+			throw new NullPointerException("Cannot rank a null entry");
+		return countBelow(entry, false);
+	}
+
+	/**
+	 * Counts the elements smaller than the bound, or smaller than or equal to it when inclusive.
+	 */
+	private int countBelow(E bound, boolean inclusive) {
+		settle();
+		int count = 0;
+		BSTreeNode<E> current = root;
+		while (current != null) {
+			int compare = bound.compareTo(current.getElement());
+			if (compare < 0) {
+				current = current.getLeft();
+			} else if (compare > 0) {
+				count += countOf(current.getLeft()) + (current.isDeleted() ? 0 : 1);
+				current = current.getRight();
+			} else {
+				return count + countOf(current.getLeft()) + (inclusive && !current.isDeleted() ? 1 : 0);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Counts the elements from {@code from} (inclusive) up to {@code to} (exclusive). Runs in time
+	 * proportional to the height of the tree.
+	 *
+	 * @param from The low bound, inclusive.
+	 * @param to   The high bound, exclusive.
+	 * @return The number of elements in the range, 0 if the range is empty.
+	 * @throws NullPointerException if either bound is null.
+	 */
+	public int countInRange(E from, E to) throws NullPointerException {
+		return countInRange(from, true, to, false);
+	}
+
+	/**
+	 * Counts the elements between two bounds. Runs in time proportional to the height of the tree.
+	 *
+	 * @param from          The low bound.
+	 * @param fromInclusive true if an element equal to the low bound is in the range.
+	 * @param to            The high bound.
+	 * @param toInclusive   true if an element equal to the high bound is in the range.
+	 * @return The number of elements in the range, 0 if the range is empty.
+	 * @throws NullPointerException if either bound is null.
+	 */
+	public int countInRange(E from, boolean fromInclusive, E to, boolean toInclusive) throws NullPointerException {
+		if (from == null || to == null)
+			throw new NullPointerException("Range bounds cannot be null");
+		int count = countBelow(to, toInclusive) - countBelow(from, !fromInclusive);
+		return Math.max(count, 0);
+	}
+
+	/**
+	 * Returns the smallest element in the binary search tree without removing it.
+	 *
+	 * @return The smallest element, or null if the tree is empty.
+	 */
+	public E first() {
+		return (min == null) ? null : min.getElement();
+	}
+
+	/**
+	 * Returns the largest element in the binary search tree without removing it.
+	 *
+	 * @return The largest element, or null if the tree is empty.
+	 */
+	public E last() {
+		return (max == null) ? null : max.getElement();
+	}
+
+	/**
+	 * Returns the largest element less than or equal to the specified element.
+	 *
+	 * @param entry The element to look up.
+	 * @return The nearest element at or below the specified element, or null if there is none.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	public E floor(E entry) throws NullPointerException {
+		return nearest(entry, true, true);
+	}
+
+	/**
+	 * Returns the smallest element greater than or equal to the specified element.
+	 *
+	 * @param entry The element to look up.
+	 * @return The nearest element at or above the specified element, or null if there is none.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	public E ceiling(E entry) throws NullPointerException {
+		return nearest(entry, false, true);
+	}
+
+	/**
+	 * Returns the largest element strictly less than the specified element.
+	 *
+	 * @param entry The element to look up.
+	 * @return The nearest element below the specified element, or null if there is none.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	public E lower(E entry) throws NullPointerException {
+		return nearest(entry, true, false);
+	}
+
+	/**
+	 * Returns the smallest element strictly greater than the specified element.
+	 *
+	 * @param entry The element to look up.
+	 * @return The nearest element above the specified element, or null if there is none.
+	 * @throws NullPointerException if the specified element is null.
+	 */
+	public E higher(E entry) throws NullPointerException {
+		return nearest(entry, false, false);
+	}
+
+	/**
+	 * Walks once from the root to find the nearest element on one side of the key, remembering the
+	 * last node passed on that side.
+	 */
+	private E nearest(E entry, boolean below, boolean inclusive) {
+		if (entry == null)
+			throw new NullPointerException("Cannot look up a null entry");
+		if (tombstones > 0) {
+			// A tombstone cannot stand in for its subtree, so go by rank instead
+			int index = countBelow(entry, below == inclusive) - (below ? 1 : 0);
+			return (index < 0 || index >= size) ? null : select(index);
+		}
+		BSTreeNode<E> best = null;
+		BSTreeNode<E> current = root;
+		while (current != null) {
+			int compare = entry.compareTo(current.getElement());
+			if (compare == 0 && inclusive)
+				return current.getElement();
+			if (below ? compare > 0 : compare < 0) {
+				best = current;
+				current = below ? current.getRight() : current.getLeft();
+			} else {
+				current = below ? current.getLeft() : current.getRight();
+			}
+		}
+		return (best == null) ? null : best.getElement();
+	}
+
+	/**
+	 * Adds every element of the other tree to this one by splitting and joining subtrees, in
+	 * O(m log(n/m + 1)) time for trees of sizes m &le; n, with independent subtrees merged in parallel.
+	 * The nodes of the other tree are moved into this one, so the other tree is left empty. The result
+	 * is height balanced even if this tree is not self-balancing: a plain tree that has broken the AVL
+	 * rule since it was last built or combined is rebuilt first, in linear time.
+	 *
+	 * @param other The tree whose elements to add; left empty.
+	 * @throws NullPointerException if the other tree is null.
+	 */
+	public void union(myBSTree<E> other) throws NullPointerException {
+		if (prepareToCombine(other))
+			replaceRoot(BSTreeJoins.union(root, other.takeRoot()));
+	}
+
+	/**
+	 * Keeps only the elements of this tree that are also in the other tree, in O(m log(n/m + 1)) time
+	 * for trees of sizes m &le; n. The other tree is consumed and left empty.
+	 *
+	 * @param other The tree whose elements to keep; left empty.
+	 * @throws NullPointerException if the other tree is null.
+	 * @see #union(myBSTree)
+	 */
+	public void intersection(myBSTree<E> other) throws NullPointerException {
+		if (prepareToCombine(other))
+			replaceRoot(BSTreeJoins.intersection(root, other.takeRoot()));
+	}
+
+	/**
+	 * Removes every element of the other tree from this one, in O(m log(n/m + 1)) time for trees of
+	 * sizes m &le; n. The other tree is consumed and left empty.
+	 *
+	 * @param other The tree whose elements to remove; left empty.
+	 * @throws NullPointerException if the other tree is null.
+	 * @see #union(myBSTree)
+	 */
+	public void difference(myBSTree<E> other) throws NullPointerException {
+		if (other == this)
+			clear();
+		else if (prepareToCombine(other))
+			replaceRoot(BSTreeJoins.difference(root, other.takeRoot()));
+	}
+
+	/**
+	 * Removes the elements from {@code from} (inclusive) up to {@code to} (exclusive) by cutting the
+	 * range out as a whole subtree, in time proportional to the height of the tree however many
+	 * elements it holds.
+	 *
+	 * @param from The low bound, inclusive.
+	 * @param to   The high bound, exclusive.
+	 * @return The number of elements removed, 0 if the range is empty.
+	 * @throws NullPointerException if either bound is null.
+	 */
+	public int removeRange(E from, E to) throws NullPointerException {
+		return removeRange(from, true, to, false);
+	}
+
+	/**
+	 * Removes the elements between two bounds by cutting the range out as a whole subtree, in time
+	 * proportional to the height of the tree however many elements it holds. The rest of the tree is
+	 * left height balanced even if this tree is not self-balancing: a plain tree that has broken the
+	 * AVL rule since it was last built or combined is rebuilt first, in linear time.
+	 *
+	 * @param from          The low bound.
+	 * @param fromInclusive true if an element equal to the low bound is removed.
+	 * @param to            The high bound.
+	 * @param toInclusive   true if an element equal to the high bound is removed.
+	 * @return The number of elements removed, 0 if the range is empty.
+	 * @throws NullPointerException if either bound is null.
+	 */
+	public int removeRange(E from, boolean fromInclusive, E to, boolean toInclusive) throws NullPointerException {
+		if (from == null || to == null)
+			throw new NullPointerException("Range bounds cannot be null");
+		if (countInRange(from, fromInclusive, to, toInclusive) == 0)
+			return 0;
+		BSTreeJoins.Split<E> atFrom = cut(from);
+		BSTreeJoins.Split<E> atTo = BSTreeJoins.split(upperPart(atFrom, fromInclusive), to);
+		int removed = countOf(lowerPart(atTo, toInclusive));
+		replaceRoot(BSTreeJoins.join(lowerPart(atFrom, !fromInclusive), upperPart(atTo, !toInclusive)));
+		return removed;
+	}
+
+	/**
+	 * Detaches the elements smaller than the key into a new tree, in time proportional to the height
+	 * of the tree.
+	 *
+	 * @param toKey The high bound, exclusive.
+	 * @return A new tree of the same kind holding the detached elements.
+	 * @throws NullPointerException if the key is null.
+	 * @see #headTree(Comparable, boolean)
+	 */
+	public myBSTree<E> headTree(E toKey) throws NullPointerException {
+		return headTree(toKey, false);
+	}
+
+	/**
+	 * Detaches the elements smaller than the key, or smaller than or equal to it when inclusive, into
+	 * a new tree. Whole subtrees are moved rather than elements, so this runs in time proportional to
+	 * the height of the tree however many elements move. Both trees are left height balanced even if
+	 * this tree is not self-balancing: a plain tree that has broken the AVL rule since it was last built
+	 * or combined is rebuilt first, in linear time.
+	 *
+	 * @param toKey     The high bound.
+	 * @param inclusive true if an element equal to the key is detached too.
+	 * @return A new tree of the same kind holding the detached elements.
+	 * @throws NullPointerException if the key is null.
+	 */
+	public myBSTree<E> headTree(E toKey, boolean inclusive) throws NullPointerException {
+		if (toKey == null)
+			throw new NullPointerException("Cannot split a tree at a null key");
+		BSTreeJoins.Split<E> halves = cut(toKey);
+		replaceRoot(upperPart(halves, !inclusive));
+		return detached(lowerPart(halves, inclusive));
+	}
+
+	/**
+	 * Detaches the elements greater than or equal to the key into a new tree, in time proportional to
+	 * the height of the tree.
+	 *
+	 * @param fromKey The low bound, inclusive.
+	 * @return A new tree of the same kind holding the detached elements.
+	 * @throws NullPointerException if the key is null.
+	 * @see #headTree(Comparable, boolean)
+	 */
+	public myBSTree<E> tailTree(E fromKey) throws NullPointerException {
+		return tailTree(fromKey, true);
+	}
+
+	/**
+	 * Detaches the elements greater than the key, or greater than or equal to it when inclusive, into
+	 * a new tree, in time proportional to the height of the tree.
+	 *
+	 * @param fromKey   The low bound.
+	 * @param inclusive true if an element equal to the key is detached too.
+	 * @return A new tree of the same kind holding the detached elements.
+	 * @throws NullPointerException if the key is null.
+	 * @see #headTree(Comparable, boolean)
+	 */
+	public myBSTree<E> tailTree(E fromKey, boolean inclusive) throws NullPointerException {
+		if (fromKey == null)
+			throw new NullPointerException("Cannot split a tree at a null key");
+		BSTreeJoins.Split<E> halves = cut(fromKey);
+		replaceRoot(lowerPart(halves, !inclusive));
+		return detached(upperPart(halves, inclusive));
+	}
+
+	/**
+	 * Splits the tree at a key: this tree keeps the elements smaller than the key and the returned
+	 * tree takes the rest. Equivalent to {@code tailTree(key, true)}.
+	 *
+	 * @param key The first element of the returned tree, if present.
+	 * @return A new tree of the same kind holding the elements greater than or equal to the key.
+	 * @throws NullPointerException if the key is null.
+	 */
+	public myBSTree<E> splitAt(E key) throws NullPointerException {
+		return tailTree(key, true);
+	}
+
+	/**
+	 * Takes over all the nodes of this tree and cuts them at the key, leaving this tree empty until the
+	 * caller installs a new root.
+	 */
+	private BSTreeJoins.Split<E> cut(E key) {
+		ensureShallow();
+		return BSTreeJoins.split(takeRoot(), key);
+	}
+
+	private static <E> BSTreeNode<E> lowerPart(BSTreeJoins.Split<E> halves, boolean withMatch) {
+		return (withMatch && halves.match != null) ? BSTreeJoins.join(halves.left, halves.match, null) : halves.left;
+	}
+
+	private static <E> BSTreeNode<E> upperPart(BSTreeJoins.Split<E> halves, boolean withMatch) {
+		return (withMatch && halves.match != null) ? BSTreeJoins.join(null, halves.match, halves.right) : halves.right;
+	}
+
+	private myBSTree<E> detached(BSTreeNode<E> subtree) {
+		myBSTree<E> tree = new myBSTree<>(balanced);
+		tree.compactionRatio = compactionRatio;
+		tree.replaceRoot(subtree);
+		return tree;
+	}
+
+	/**
+	 * Readies both trees for relinking. Returns false if there is nothing to do because the other tree
+	 * is this one.
+	 */
+	private boolean prepareToCombine(myBSTree<E> other) throws NullPointerException {
+		if (other == null)
+			throw new NullPointerException("Cannot combine with a null tree");
+		if (other == this)
+			return false;
+		ensureShallow();
+		other.ensureShallow();
+		return true;
+	}
+
+	/**
+	 * Settles the cached fields and, if the tree holds tombstones or breaks the AVL rule anywhere,
+	 * rebuilds it perfectly balanced, so that join-based algorithms get AVL inputs and recurse only
+	 * O(log n) deep over live nodes.
+	 */
+	private void ensureShallow() {
+		settle();
+		drainPath = null;
+		if (tombstones > 0 || skewed)
+			rebuild();
+	}
+
+	/**
+	 * Empties the tree and returns its former root, whose nodes the caller takes over.
+	 */
+	private BSTreeNode<E> takeRoot() {
+		BSTreeNode<E> taken = root;
+		clear();
+		return taken;
+	}
+
+	/**
+	 * Installs a relinked tree as the contents of this one and recomputes the derived state.
+	 */
+	private void replaceRoot(BSTreeNode<E> newRoot) {
+		root = newRoot;
+		size = countOf(newRoot);
+		// Joins of AVL trees are AVL
+		skewed = false;
+		drainPath = null;
+		drainStale = false;
+		min = extreme(root, true);
+		max = extreme(root, false);
+	}
+
+	private static int countOf(BSTreeNode<?> node) {
+		return (node == null) ? 0 : node.getNumberNodes();
+	}
+
+	/**
+	 * Refreshes the cached height and count of a node whose subtree changed and, in balanced mode, restores
+	 * the AVL invariant with at most two rotations.
+	 *
+	 * @param node The root of the changed subtree.
+	 * @return The root of the subtree after rebalancing.
+	 */
+	private BSTreeNode<E> rebalance(BSTreeNode<E> node) {
+		node.update();
+		if (!balanced) {
+			checkBalance(node);
+			return node;
+		}
+		int balance = balanceFactor(node);
+		if (balance > 1) {
+			if (balanceFactor(node.getLeft()) < 0)
+				node.setLeft(rotateLeft(node.getLeft()));
+			return rotateRight(node);
+		}
+		if (balance < -1) {
+			if (balanceFactor(node.getRight()) > 0)
+				node.setRight(rotateRight(node.getRight()));
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Notes in a plain tree whether a node whose height was just refreshed breaks the AVL rule. Heights
+	 * only change along the path an insertion or removal walks, so checking every refreshed node is
+	 * enough to track the whole tree.
+	 */
+	private void checkBalance(BSTreeNode<E> node) {
+		if (Math.abs(balanceFactor(node)) > 1)
+			skewed = true;
+	}
+
+	private static int heightOf(BSTreeNode<?> node) {
+		return (node == null) ? -1 : node.getHeight();
+	}
+
+	private static int balanceFactor(BSTreeNode<?> node) {
+		return heightOf(node.getLeft()) - heightOf(node.getRight());
+	}
+
+	private BSTreeNode<E> rotateRight(BSTreeNode<E> node) {
+		BSTreeNode<E> pivot = node.getLeft();
+		node.setLeft(pivot.getRight());
+		pivot.setRight(node);
+		return pivot;
+	}
+
+	private BSTreeNode<E> rotateLeft(BSTreeNode<E> node) {
+		BSTreeNode<E> pivot = node.getRight();
+		node.setRight(pivot.getLeft());
+		pivot.setLeft(node);
+		return pivot;
+	}
+
 	/**
 	 * Returns an iterator for traversing the binary search tree in inorder.
 	 *
@@ -199,7 +1294,7 @@ public class myBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
 	 */
 	@Override
 	public Iterator<E> inorderIterator() {
-		return new InorderIterator(root);
+		return new BSTreeIterators.InorderIterator<>(root);
 	}
 
 	/**
@@ -209,7 +1304,7 @@ public class myBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
 	 */
 	@Override
 	public Iterator<E> preorderIterator() {
-		return new PreorderIterator(root);
+		return new BSTreeIterators.PreorderIterator<>(root);
 	}
 
 	/**
@@ -219,28 +1314,181 @@ public class myBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
 	 */
 	@Override
 	public Iterator<E> postorderIterator() {
-		return new PostorderIterator(root);
+		return new BSTreeIterators.PostorderIterator<>(root);
+	}
+
+	/**
+	 * Returns an iterator over the elements from {@code from} (inclusive) up to {@code to}
+	 * (exclusive), in ascending order.
+	 *
+	 * @param from The low bound, inclusive.
+	 * @param to   The high bound, exclusive.
+	 * @return An iterator over the elements in the range.
+	 * @throws NullPointerException if either bound is null.
+	 */
+	public Iterator<E> rangeIterator(E from, E to) throws NullPointerException {
+		return rangeIterator(from, true, to, false);
+	}
+
+	/**
+	 * Returns an iterator over the elements between two bounds, in ascending order. Subtrees entirely
+	 * outside the range are never visited, so a full iteration costs O(height + k) for k elements.
+	 *
+	 * @param from          The low bound.
+	 * @param fromInclusive true if an element equal to the low bound is in the range.
+	 * @param to            The high bound.
+	 * @param toInclusive   true if an element equal to the high bound is in the range.
+	 * @return An iterator over the elements in the range.
+	 * @throws NullPointerException if either bound is null.
+	 */
+	public Iterator<E> rangeIterator(E from, boolean fromInclusive, E to, boolean toInclusive) throws NullPointerException {
+		if (from == null || to == null)
+			throw new NullPointerException("Range bounds cannot be null");
+		return new RangeIterator(root, from, fromInclusive, to, toInclusive);
+	}
+
+	/**
+	 * Performs the action on every element in ascending order using a threaded (Morris) traversal,
+	 * which needs no stack and only O(1) extra space. Each node without a right child is temporarily
+	 * linked back to its successor while its left subtree is visited, and unlinked again on the way
+	 * out, so the tree has its original shape when this method returns. The tree must not be read or
+	 * modified by other code, including the action itself, until then.
+	 * <p>
+	 * If the action throws, no further elements are visited, but the walk still runs to the end to
+	 * remove every temporary link before the exception is rethrown.
+	 *
+	 * @param action The action to perform on each element.
+	 * @throws NullPointerException if the action is null.
+	 */
+	public void forEachInOrder(Consumer<? super E> action) throws NullPointerException {
+		if (action == null)
+			throw new NullPointerException("Cannot apply a null action to the tree");
+		Throwable failure = null;
+		BSTreeNode<E> current = root;
+		while (current != null) {
+			if (current.getLeft() == null) {
+				failure = visit(action, current, failure);
+				current = current.getRight();
+				continue;
+			}
+			BSTreeNode<E> predecessor = current.getLeft();
+			while (predecessor.getRight() != null && predecessor.getRight() != current)
+				predecessor = predecessor.getRight();
+			if (predecessor.getRight() == null) {
+				// First arrival: link the predecessor back here and descend
+				predecessor.setRight(current);
+				current = current.getLeft();
+			} else {
+				// Returned through the link: the left subtree is done, so remove it
+				predecessor.setRight(null);
+				failure = visit(action, current, failure);
+				current = current.getRight();
+			}
+		}
+		if (failure instanceof Error)
+			throw (Error) failure;
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		if (failure != null)
+			throw new RuntimeException(failure);
+	}
+
+	/**
+	 * Applies the action to the node's element unless an earlier call already failed.
+	 *
+	 * @return The first failure seen so far, if any.
+	 */
+	private Throwable visit(Consumer<? super E> action, BSTreeNode<E> node, Throwable failure) {
+		if (failure != null || node.isDeleted())
+			return failure;
+		try {
+			action.accept(node.getElement());
+			return null;
+		} catch (Throwable t) {
+			return t;
+		}
+	}
+
+	/**
+	 * Returns a spliterator over the elements in ascending order. It reports {@code SORTED},
+	 * {@code DISTINCT}, {@code ORDERED}, {@code SIZED}, {@code SUBSIZED} and {@code NONNULL}, and splits by
+	 * handing the left part of its subtree to the new spliterator, so parallel workers each walk their
+	 * own disjoint branch. The tree must not be modified while the spliterator is in use.
+	 *
+	 * @return A spliterator over the elements of the tree.
+	 */
+	public Spliterator<E> spliterator() {
+		settle();
+		return new TreeSpliterator(null, root);
+	}
+
+	/**
+	 * Returns a sequential stream over the elements in ascending order.
+	 *
+	 * @return A sequential stream over the elements of the tree.
+	 */
+	public Stream<E> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Returns a possibly parallel stream over the elements in ascending order.
+	 *
+	 * @return A parallel stream over the elements of the tree.
+	 */
+	public Stream<E> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
 	}
 
 	// Inner classes for iterators
-	private class InorderIterator implements Iterator<E> {
-		private MyStack<BSTreeNode<E>> stack;
+	private class RangeIterator implements Iterator<E> {
+		private ArrayStack<BSTreeNode<E>> stack;
+		private final E from, to;
+		private final boolean fromInclusive, toInclusive;
 
-		public InorderIterator(BSTreeNode<E> root) {
-			stack = new MyStack<>();
+		public RangeIterator(BSTreeNode<E> root, E from, boolean fromInclusive, E to, boolean toInclusive) {
+			stack = new ArrayStack<>(BSTreeIterators.stackCapacity(root));
+			this.from = from;
+			this.fromInclusive = fromInclusive;
+			this.to = to;
+			this.toInclusive = toInclusive;
 			pushLeft(root);
+			skipDeleted();
+		}
+
+		private boolean belowRange(E element) {
+			int compare = element.compareTo(from);
+			return fromInclusive ? compare < 0 : compare <= 0;
+		}
+
+		private boolean aboveRange(E element) {
+			int compare = element.compareTo(to);
+			return toInclusive ? compare > 0 : compare >= 0;
 		}
 
 		private void pushLeft(BSTreeNode<E> node) {
 			while (node != null) {
-				stack.push(node);
-				node = node.getLeft();
+				// A node below the range takes its whole left subtree with it
+				if (belowRange(node.getElement())) {
+					node = node.getRight();
+				} else {
+					stack.push(node);
+					node = node.getLeft();
+				}
 			}
 		}
 
+		/**
+		 * Moves past tombstones on top of the stack that are still within the range.
+		 */
+		private void skipDeleted() {
+			while (!stack.isEmpty() && stack.peek().isDeleted() && !aboveRange(stack.peek().getElement()))
+				pushLeft(stack.pop().getRight());
+		}
+
 		@Override
 		public boolean hasNext() {
-			return !stack.isEmpty();
+			return !stack.isEmpty() && !aboveRange(stack.peek().getElement());
 		}
 
 		@Override
@@ -249,48 +1497,54 @@ public class myBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
 				throw new NoSuchElementException("No more elements in the iterator.");
 			BSTreeNode<E> current = stack.pop();
 			pushLeft(current.getRight());
+			skipDeleted();
 			return current.getElement();
 		}
 	}
 
-	private class PreorderIterator implements Iterator<E> {
-		private MyStack<BSTreeNode<E>> stack;
-
-		public PreorderIterator(BSTreeNode<E> root) {
-			stack = new MyStack<>();
-			if (root != null)
-				stack.push(root);
-		}
+	/**
+	 * Covers an optional single node followed by a whole subtree. Splitting hands off the head and the
+	 * left branch of the subtree, and keeps the subtree root and its right branch. Once traversal has
+	 * begun the remaining elements are walked with a stack and no longer split.
+	 */
+	private class TreeSpliterator implements Spliterator<E> {
+		private BSTreeNode<E> head;
+		private BSTreeNode<E> subtree;
+		private ArrayStack<BSTreeNode<E>> stack;
+		private long remaining;
 
-		@Override
-		public boolean hasNext() {
-			return !stack.isEmpty();
+		public TreeSpliterator(BSTreeNode<E> head, BSTreeNode<E> subtree) {
+			this.head = head;
+			this.subtree = subtree;
+			this.remaining = (head == null || head.isDeleted() ? 0 : 1) + countOf(subtree);
 		}
 
 		@Override
-		public E next() throws NoSuchElementException {
-			if (!hasNext())
-				throw new NoSuchElementException("No more elements in the iterator.");
-			BSTreeNode<E> current = stack.pop();
-			if (current.getRight() != null)
-				stack.push(current.getRight());
-			if (current.getLeft() != null)
-				stack.push(current.getLeft());
-			return current.getElement();
+		public Spliterator<E> trySplit() {
+			if (stack != null || subtree == null)
+				return null;
+			if (head == null) {
+				BSTreeNode<E> node = subtree;
+				head = node;
+				subtree = node.getRight();
+				if (node.getLeft() != null)
+					return handOff(null, node.getLeft());
+				if (subtree == null)
+					return null;
+			}
+			TreeSpliterator prefix = handOff(head, subtree.getLeft());
+			head = subtree;
+			subtree = subtree.getRight();
+			return prefix;
 		}
-	}
-
-	private class PostorderIterator implements Iterator<E> {
-		private MyStack<BSTreeNode<E>> stack;
-		private BSTreeNode<E> lastVisited;
 
-		public PostorderIterator(BSTreeNode<E> root) {
-			stack = new MyStack<>();
-			lastVisited = null;
-			pushLeftmostPath(root);
+		private TreeSpliterator handOff(BSTreeNode<E> prefixHead, BSTreeNode<E> prefixSubtree) {
+			TreeSpliterator prefix = new TreeSpliterator(prefixHead, prefixSubtree);
+			remaining -= prefix.remaining;
+			return prefix;
 		}
 
-		private void pushLeftmostPath(BSTreeNode<E> node) {
+		private void pushLeft(BSTreeNode<E> node) {
 			while (node != null) {
 				stack.push(node);
 				node = node.getLeft();
@@ -298,24 +1552,50 @@ public class myBSTree<E extends Comparable<? super E>> implements BSTreeADT<E> {
 		}
 
 		@Override
-		public boolean hasNext() {
-			return !stack.isEmpty();
+		public boolean tryAdvance(Consumer<? super E> action) {
+			if (action == null)
+				throw new NullPointerException("Cannot apply a null action to the tree");
+			if (stack == null) {
+				stack = new ArrayStack<>(BSTreeIterators.stackCapacity(subtree));
+				pushLeft(subtree);
+				subtree = null;
+			}
+			BSTreeNode<E> current;
+			do {
+				if (head != null) {
+					current = head;
+					head = null;
+				} else if (!stack.isEmpty()) {
+					current = stack.pop();
+					pushLeft(current.getRight());
+				} else {
+					return false;
+				}
+			} while (current.isDeleted());
+			remaining--;
+			action.accept(current.getElement());
+			return true;
 		}
 
 		@Override
-		public E next() throws NoSuchElementException {
-			if (!hasNext())
-				throw new NoSuchElementException("No more elements in the iterator.");
-
-			while (true) {
-				BSTreeNode<E> current = stack.peek();
-				if (current.getRight() == null || current.getRight() == lastVisited) {
-					lastVisited = stack.pop();
-					return lastVisited.getElement();
-				} else {
-					pushLeftmostPath(current.getRight());
-				}
+		public void forEachRemaining(Consumer<? super E> action) {
+			while (tryAdvance(action)) {
 			}
 		}
+
+		@Override
+		public long estimateSize() {
+			return remaining;
+		}
+
+		@Override
+		public int characteristics() {
+			return SORTED | DISTINCT | ORDERED | SIZED | SUBSIZED | NONNULL;
+		}
+
+		@Override
+		public Comparator<? super E> getComparator() {
+			return null; // Natural ordering
+		}
 	}
 }